@@ -0,0 +1,135 @@
+package org.tkit.onecx.product.store.bff.benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Test data and object factories of the benchmarks. The svc responses are created as JSON, the
+ * client models are deserialized from it like in the running application.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Object mapper with the settings of the Quarkus object mapper.
+     */
+    static ObjectMapper objectMapper() {
+        return JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    /**
+     * Creates the generated MapStruct implementation of the mapper and sets the mappers it uses,
+     * which are injected by CDI in the application.
+     */
+    static <T> T mapper(Class<T> type) {
+        try {
+            var impl = Class.forName(type.getName() + "Impl").getDeclaredConstructor().newInstance();
+            inject(impl);
+            return type.cast(impl);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Could not create mapper " + type.getName(), ex);
+        }
+    }
+
+    private static void inject(Object target) throws ReflectiveOperationException {
+        for (Field field : target.getClass().getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            field.setAccessible(true);
+            if (field.get(target) == null) {
+                var dependency = field.getType().isInterface() ? mapper(field.getType())
+                        : field.getType().getDeclaredConstructor().newInstance();
+                field.set(target, dependency);
+            }
+        }
+    }
+
+    static String productPage(int size) {
+        var json = new StringBuilder(size * 256);
+        json.append("{\"totalElements\":").append(size).append(",\"number\":0,\"size\":").append(size)
+                .append(",\"totalPages\":1,\"stream\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":\"").append(id(i)).append("\",\"name\":\"product-").append(i)
+                    .append("\",\"version\":\"1.0.").append(i)
+                    .append("\",\"description\":\"Description of the product ").append(i)
+                    .append("\",\"imageUrl\":\"https://images.onecx.org/product-").append(i)
+                    .append(".png\",\"displayName\":\"Product ").append(i)
+                    .append("\",\"provider\":\"onecx\",\"undeployed\":false}");
+        }
+        return json.append("]}").toString();
+    }
+
+    static String microfrontendPage(int size) {
+        var json = new StringBuilder(size * 256);
+        json.append("{\"totalElements\":").append(size).append(",\"number\":0,\"size\":").append(size)
+                .append(",\"totalPages\":1,\"stream\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":\"").append(id(i)).append("\",\"appId\":\"app-").append(i)
+                    .append("\",\"appName\":\"Application ").append(i)
+                    .append("\",\"appVersion\":\"1.0.").append(i)
+                    .append("\",\"productName\":\"product-").append(i % 10)
+                    .append("\",\"remoteBaseUrl\":\"/mfe/app-").append(i)
+                    .append("\",\"exposedModule\":\"./AppModule\",\"undeployed\":false}");
+        }
+        return json.append("]}").toString();
+    }
+
+    static String loadResult(int size) {
+        var json = new StringBuilder(size * 512);
+        json.append("{\"totalElements\":").append(size).append(",\"number\":0,\"size\":").append(size)
+                .append(",\"totalPages\":1,\"stream\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"product-").append(i)
+                    .append("\",\"displayName\":\"Product ").append(i)
+                    .append("\",\"description\":\"Description of the product ").append(i)
+                    .append("\",\"basePath\":\"/product-").append(i)
+                    .append("\",\"version\":\"1.0.").append(i)
+                    .append("\",\"undeployed\":false,\"multitenancy\":true,\"microfrontends\":[");
+            for (int m = 0; m < 3; m++) {
+                if (m > 0) {
+                    json.append(',');
+                }
+                json.append("{\"appId\":\"app-").append(m).append("\",\"appName\":\"Application ").append(m)
+                        .append("\",\"undeployed\":false}");
+            }
+            json.append("]}");
+        }
+        return json.append("]}").toString();
+    }
+
+    static String classifications(int size) {
+        var value = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                value.append(',');
+            }
+            value.append("classification-").append(i);
+        }
+        return value.toString();
+    }
+
+    private static String id(int i) {
+        return "00000000-0000-0000-0000-" + String.format("%012d", i);
+    }
+}
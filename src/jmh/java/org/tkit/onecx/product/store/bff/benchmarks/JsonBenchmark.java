@@ -0,0 +1,59 @@
+package org.tkit.onecx.product.store.bff.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.tkit.onecx.product.store.bff.rs.mappers.ProductsMapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProductPageResultDTO;
+import gen.org.tkit.onecx.product.store.client.model.ProductPageResult;
+
+/**
+ * Jackson (de)serialization of a product page, the svc JSON is read into the client model,
+ * mapped to the DTO and written as BFF JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({ "1000" })
+    int size;
+
+    ObjectMapper objectMapper;
+
+    ProductsMapper productsMapper;
+
+    byte[] svcJson;
+
+    ProductPageResultDTO pageDTO;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = BenchmarkData.objectMapper();
+        productsMapper = BenchmarkData.mapper(ProductsMapper.class);
+        svcJson = BenchmarkData.productPage(size).getBytes();
+        pageDTO = productsMapper.mapProductSearchPageResponse(objectMapper.readValue(svcJson, ProductPageResult.class));
+    }
+
+    @Benchmark
+    public ProductPageResult deserializeClientModel() throws Exception {
+        return objectMapper.readValue(svcJson, ProductPageResult.class);
+    }
+
+    @Benchmark
+    public byte[] serializeDTO() throws Exception {
+        return objectMapper.writeValueAsBytes(pageDTO);
+    }
+
+    @Benchmark
+    public byte[] roundTrip() throws Exception {
+        var page = objectMapper.readValue(svcJson, ProductPageResult.class);
+        return objectMapper.writeValueAsBytes(productsMapper.mapProductSearchPageResponse(page));
+    }
+}
@@ -0,0 +1,84 @@
+package org.tkit.onecx.product.store.bff.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.tkit.onecx.product.store.bff.rs.mappers.MicrofrontendsMapper;
+import org.tkit.onecx.product.store.bff.rs.mappers.ProductsMapper;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.MicrofrontendPageResultDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProductPageResultDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProductsLoadResultDTO;
+import gen.org.tkit.onecx.product.store.client.model.MicrofrontendPageResult;
+import gen.org.tkit.onecx.product.store.client.model.ProductPageResult;
+import gen.org.tkit.onecx.product.store.client.model.ProductsLoadResult;
+
+/**
+ * MapStruct mappings of the svc page results to the BFF DTOs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({ "1000" })
+    int size;
+
+    @Param({ "20" })
+    int classificationsSize;
+
+    ProductsMapper productsMapper;
+
+    MicrofrontendsMapper microfrontendsMapper;
+
+    ProductPageResult productPage;
+
+    MicrofrontendPageResult microfrontendPage;
+
+    ProductsLoadResult loadResult;
+
+    String classifications;
+
+    Set<String> classificationSet;
+
+    @Setup
+    public void setup() throws Exception {
+        var objectMapper = BenchmarkData.objectMapper();
+        productsMapper = BenchmarkData.mapper(ProductsMapper.class);
+        microfrontendsMapper = BenchmarkData.mapper(MicrofrontendsMapper.class);
+        productPage = objectMapper.readValue(BenchmarkData.productPage(size), ProductPageResult.class);
+        microfrontendPage = objectMapper.readValue(BenchmarkData.microfrontendPage(size), MicrofrontendPageResult.class);
+        loadResult = objectMapper.readValue(BenchmarkData.loadResult(size), ProductsLoadResult.class);
+        classifications = BenchmarkData.classifications(classificationsSize);
+        classificationSet = productsMapper.map(classifications);
+    }
+
+    @Benchmark
+    public ProductPageResultDTO mapProductSearchPageResponse() {
+        return productsMapper.mapProductSearchPageResponse(productPage);
+    }
+
+    @Benchmark
+    public MicrofrontendPageResultDTO mapMfeSearchPageResponse() {
+        return microfrontendsMapper.mapMfeSearchPageResponse(microfrontendPage);
+    }
+
+    @Benchmark
+    public ProductsLoadResultDTO mapLoadResult() {
+        return productsMapper.mapLoadResult(loadResult);
+    }
+
+    @Benchmark
+    public Set<String> splitClassifications() {
+        return productsMapper.map(classifications);
+    }
+
+    @Benchmark
+    public String joinClassifications() {
+        return productsMapper.map(classificationSet);
+    }
+}
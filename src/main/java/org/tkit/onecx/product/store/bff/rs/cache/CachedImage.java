@@ -0,0 +1,31 @@
+package org.tkit.onecx.product.store.bff.rs.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+/**
+ * Cached image with the body stored in a read-only direct buffer.
+ *
+ * @param contentType image content type
+ * @param etag strong entity tag of the image
+ * @param body image body
+ */
+public record CachedImage(String contentType, String etag, ByteBuffer body) {
+
+    public int length() {
+        return body.limit();
+    }
+
+    /**
+     * Writes the image body to the output stream without copying it to the heap first.
+     */
+    public void writeTo(OutputStream output) throws IOException {
+        var channel = Channels.newChannel(output);
+        var data = body.duplicate();
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org.tkit.onecx.product.store.bff.rs.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
+import org.tkit.onecx.product.store.bff.rs.services.ContextKeys;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.RefTypeDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Tenant isolated images cache bounded by the total size of the cached images. The image bodies
+ * are kept in direct buffers so that they do not end up in the old generation of the heap.
+ */
+@ApplicationScoped
+public class ImageCache {
+
+    static final String CACHE_NAME = "onecx-product-store-images";
+
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    StaleCache staleCache;
+
+    private Cache<ImageKey, Entry> cache;
+
+    @PostConstruct
+    void init() {
+        var cacheConfig = config.images().cache();
+        // stale images are retained after their expiry for the stale serving
+        var retention = config.stale().enabled()
+                ? staleCache.retention(cacheConfig.expireAfterWrite())
+                : cacheConfig.expireAfterWrite();
+        cache = Caffeine.newBuilder()
+                .maximumWeight(cacheConfig.maxSize().asLongValue())
+                .weigher((ImageKey key, Entry entry) -> entry.image().length())
+                .expireAfterWrite(retention)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        Gauge.builder("cache.size.bytes", cache, c -> c.policy().eviction()
+                .map(e -> e.weightedSize().orElse(0L)).orElse(0L))
+                .tag("cache", CACHE_NAME)
+                .description("The total size of the cached images in bytes")
+                .register(registry);
+    }
+
+    /**
+     * Returns {@code true} if the images of the current request are cached, images of requests
+     * without tenant are not cached.
+     */
+    public boolean enabled() {
+        return config.images().cache().enabled() && ContextKeys.tenant() != null;
+    }
+
+    /**
+     * Returns {@code true} if an image with this content length can be loaded into a buffer.
+     */
+    public boolean fits(long contentLength) {
+        return contentLength > 0 && contentLength <= config.images().cache().maxEntrySize().asLongValue();
+    }
+
+    public CachedImage get(String refId, RefTypeDTO refType) {
+        return get(refId, refType, null);
+    }
+
+    /**
+     * Returns the cached variant of the image, the {@code null} variant is the original image.
+     */
+    public CachedImage get(String refId, RefTypeDTO refType, String variant) {
+        return get(ImageKey.of(refId, refType, variant), Duration.ZERO);
+    }
+
+    /**
+     * Returns the original image if it expired at most the stale window ago.
+     */
+    public CachedImage getStale(String refId, RefTypeDTO refType, Duration window) {
+        return get(ImageKey.of(refId, refType, null), window);
+    }
+
+    private CachedImage get(ImageKey key, Duration window) {
+        if (!enabled()) {
+            return null;
+        }
+        var entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        var age = Duration.ofNanos(System.nanoTime() - entry.loadedAt());
+        return age.compareTo(config.images().cache().expireAfterWrite().plus(window)) < 0 ? entry.image() : null;
+    }
+
+    /**
+     * Reads the image body into a buffer and caches it if the body is complete. Only cached images
+     * are kept in a direct buffer. The strong upstream entity tag is kept, otherwise a strong entity
+     * tag is computed from the body.
+     *
+     * @param etag the strong upstream entity tag or {@code null}
+     * @return the loaded image
+     */
+    public CachedImage load(String refId, RefTypeDTO refType, String contentType, String etag, InputStream body,
+            int contentLength) throws IOException {
+        var buffer = allocate(contentLength);
+        var channel = Channels.newChannel(body);
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read != -1 && buffer.hasRemaining());
+        buffer.flip();
+
+        var data = buffer.asReadOnlyBuffer();
+        var image = new CachedImage(contentType, etag != null ? etag : etag(data), data);
+        if (enabled() && image.length() == contentLength) {
+            cache.put(ImageKey.of(refId, refType, null), new Entry(image, System.nanoTime()));
+        }
+        return image;
+    }
+
+    /**
+     * Stores a generated variant of the image and caches it.
+     *
+     * @return the stored image
+     */
+    public CachedImage store(String refId, RefTypeDTO refType, String variant, String contentType, byte[] body) {
+        var buffer = enabled() ? ByteBuffer.allocateDirect(body.length).put(body).flip() : ByteBuffer.wrap(body);
+        var data = buffer.asReadOnlyBuffer();
+        var image = new CachedImage(contentType, etag(data), data);
+        if (enabled()) {
+            cache.put(ImageKey.of(refId, refType, variant), new Entry(image, System.nanoTime()));
+        }
+        return image;
+    }
+
+    /**
+     * Invalidates the original image and all its variants of the tenant of the current request.
+     */
+    public void invalidate(String refId, RefTypeDTO refType) {
+        var tenant = ContextKeys.tenant();
+        if (tenant == null) {
+            return;
+        }
+        cache.asMap().keySet().removeIf(key -> key.tenant().equals(tenant) && key.refId().equals(refId)
+                && key.refType() == refType);
+    }
+
+    /**
+     * Direct buffers are released only by the garbage collector, they are used for the cached images only.
+     */
+    private ByteBuffer allocate(int capacity) {
+        return enabled() ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private static String etag(ByteBuffer data) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(data.duplicate());
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private record ImageKey(String tenant, String refId, RefTypeDTO refType, String variant) {
+
+        static ImageKey of(String refId, RefTypeDTO refType, String variant) {
+            return new ImageKey(ContextKeys.tenant(), refId, refType, variant);
+        }
+    }
+
+    private record Entry(CachedImage image, long loadedAt) {
+    }
+}
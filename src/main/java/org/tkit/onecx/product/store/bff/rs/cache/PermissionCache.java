@@ -0,0 +1,124 @@
+package org.tkit.onecx.product.store.bff.rs.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache of the permission responses of the {@code onecx_permission} client. Concurrent lookups of
+ * the same key wait for the lookup in flight instead of calling the permission service again.
+ */
+@ApplicationScoped
+public class PermissionCache {
+
+    static final String CACHE_NAME = "onecx-product-store-permissions";
+
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final ConcurrentMap<String, CompletableFuture<CachedPermissions>> inFlight = new ConcurrentHashMap<>();
+
+    private Cache<String, CachedPermissions> cache;
+
+    private Counter coalesced;
+
+    @PostConstruct
+    void init() {
+        var cacheConfig = config.permissions().cache();
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheConfig.maxEntries())
+                .expireAfterWrite(cacheConfig.expireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        coalesced = Counter.builder("onecx.product-store.permissions.coalesced")
+                .description("Permission lookups which waited for an identical lookup in flight")
+                .register(registry);
+    }
+
+    public boolean enabled() {
+        return config.permissions().cache().enabled();
+    }
+
+    public CachedPermissions get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, CachedPermissions permissions) {
+        cache.put(key, permissions);
+    }
+
+    /**
+     * Registers a lookup of the key. Returns {@code null} if the caller has to load the permissions
+     * and complete the lookup with {@link #complete(String, CompletableFuture)}, otherwise the lookup
+     * in flight.
+     *
+     * @param key the permissions key
+     * @param lookup the lookup of the caller
+     * @return the lookup in flight or {@code null}
+     */
+    public CompletableFuture<CachedPermissions> join(String key, CompletableFuture<CachedPermissions> lookup) {
+        var existing = inFlight.putIfAbsent(key, lookup);
+        if (existing != null) {
+            coalesced.increment();
+        }
+        return existing;
+    }
+
+    /**
+     * Completes the lookup of the key with the cached permissions, waiting lookups without
+     * permissions call the permission service themselves.
+     */
+    public void complete(String key, CompletableFuture<CachedPermissions> lookup) {
+        inFlight.remove(key, lookup);
+        lookup.complete(cache.getIfPresent(key));
+    }
+
+    /**
+     * Returns the cache key of the permission request, the principal token is stored only as hash.
+     *
+     * @param uri the request uri which contains the application id
+     * @param tokens the tokens of the request principal
+     * @return the cache key
+     */
+    public static String key(String uri, String... tokens) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            for (var token : tokens) {
+                if (token != null) {
+                    digest.update(token.getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) 0);
+            }
+            return uri + "#" + HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Cached permission response.
+     */
+    public record CachedPermissions(String mediaType, byte[] body) {
+    }
+}
@@ -0,0 +1,87 @@
+package org.tkit.onecx.product.store.bff.rs.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.client.ClientResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+import org.jboss.resteasy.reactive.client.spi.ResteasyReactiveClientRequestContext;
+import org.jboss.resteasy.reactive.client.spi.ResteasyReactiveClientRequestFilter;
+import org.tkit.onecx.product.store.bff.rs.cache.PermissionCache.CachedPermissions;
+
+import io.quarkus.arc.Unremovable;
+
+/**
+ * Serves the permission lookups of the {@code onecx_permission} client from the
+ * {@link PermissionCache}. Registered through the providers of the client configuration.
+ */
+@Singleton
+@Unremovable
+@Priority(Priorities.USER + 1000)
+public class PermissionCacheFilter implements ResteasyReactiveClientRequestFilter, ClientResponseFilter {
+
+    static final String PRINCIPAL_TOKEN_HEADER = "apm-principal-token";
+
+    static final String CACHE_KEY = PermissionCacheFilter.class.getName() + ".key";
+
+    @Inject
+    PermissionCache cache;
+
+    @Override
+    public void filter(ResteasyReactiveClientRequestContext requestContext) {
+        if (!cache.enabled() || !HttpMethod.GET.equals(requestContext.getMethod())) {
+            return;
+        }
+        var key = PermissionCache.key(requestContext.getUri().toString(),
+                requestContext.getHeaderString(PRINCIPAL_TOKEN_HEADER),
+                requestContext.getHeaderString(HttpHeaders.AUTHORIZATION));
+        var cached = cache.get(key);
+        if (cached != null) {
+            requestContext.abortWith(response(cached));
+            return;
+        }
+
+        var lookup = new CompletableFuture<CachedPermissions>();
+        var existing = cache.join(key, lookup);
+        if (existing == null) {
+            requestContext.setProperty(CACHE_KEY, key);
+            requestContext.getRestClientRequestContext().getResult()
+                    .whenComplete((response, ex) -> cache.complete(key, lookup));
+            return;
+        }
+        requestContext.suspend();
+        existing.whenComplete((permissions, ex) -> {
+            // without a result of the lookup in flight the request calls the service itself
+            if (permissions != null) {
+                requestContext.abortWith(response(permissions));
+            }
+            requestContext.resume();
+        });
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) throws IOException {
+        if (!(requestContext.getProperty(CACHE_KEY) instanceof String key)
+                || responseContext.getStatus() != Response.Status.OK.getStatusCode()
+                || !responseContext.hasEntity()) {
+            return;
+        }
+        var body = responseContext.getEntityStream().readAllBytes();
+        responseContext.setEntityStream(new ByteArrayInputStream(body));
+        cache.put(key, new CachedPermissions(responseContext.getHeaderString(HttpHeaders.CONTENT_TYPE), body));
+    }
+
+    private static Response response(CachedPermissions permissions) {
+        return Response.ok(new ByteArrayInputStream(permissions.body()), permissions.mediaType()).build();
+    }
+}
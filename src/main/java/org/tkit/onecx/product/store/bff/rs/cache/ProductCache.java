@@ -0,0 +1,169 @@
+package org.tkit.onecx.product.store.bff.rs.cache;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
+import org.tkit.onecx.product.store.bff.rs.services.ContextKeys;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Tenant isolated cache of the product reads. The local Caffeine tier is backed by the optional
+ * {@link SharedCacheTier}, values of the shared tier are stored as JSON. Reads of requests without
+ * tenant are not cached.
+ */
+@ApplicationScoped
+public class ProductCache {
+
+    static final String CACHE_NAME = "onecx-product-store-products";
+
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Instance<SharedCacheTier> sharedTier;
+
+    private final ConcurrentMap<String, AtomicLong> invalidations = new ConcurrentHashMap<>();
+
+    private Cache<ProductKey, Object> cache;
+
+    @PostConstruct
+    void init() {
+        var cacheConfig = config.products().cache();
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheConfig.maxEntries())
+                .expireAfterWrite(cacheConfig.expireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached value of the operation for the tenant of the current request, or loads and
+     * caches it.
+     *
+     * @see #get(String, String, Object, Class, Supplier)
+     */
+    public <T> T get(String operation, Object key, Class<T> type, Supplier<T> loader) {
+        return get(ContextKeys.tenant(), operation, key, type, loader);
+    }
+
+    /**
+     * Returns the cached value of the operation for the tenant, or loads and caches it.
+     *
+     * @param tenant the tenant of the request, {@code null} bypasses the cache
+     * @param operation the cached read operation
+     * @param key the arguments of the read, must implement equals and hash code
+     * @param type the type of the value
+     * @param loader loads the value from the product store
+     * @return the value
+     */
+    public <T> T get(String tenant, String operation, Object key, Class<T> type, Supplier<T> loader) {
+        if (!config.products().cache().enabled() || tenant == null) {
+            return loader.get();
+        }
+        var productKey = new ProductKey(tenant, operation, key);
+        var value = cache.getIfPresent(productKey);
+        if (value != null) {
+            return type.cast(value);
+        }
+
+        var invalidation = invalidations(tenant);
+        var generation = invalidation.get();
+        var shared = shared();
+        var sharedKey = shared != null ? sharedKey(productKey) : null;
+        var result = shared != null ? fromShared(shared, productKey.tenant(), sharedKey, type) : null;
+        if (result == null) {
+            result = loader.get();
+            // a write during the load may not be visible in the result
+            if (result != null && shared != null && generation == invalidation.get()) {
+                toShared(shared, productKey.tenant(), sharedKey, result);
+            }
+        }
+        if (result != null && generation == invalidation.get()) {
+            cache.put(productKey, result);
+            if (generation != invalidation.get()) {
+                cache.invalidate(productKey);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Invalidates all cached reads of the tenant of the current request.
+     */
+    public void invalidate() {
+        var tenant = ContextKeys.tenant();
+        if (tenant == null) {
+            return;
+        }
+        invalidations(tenant).incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.tenant().equals(tenant));
+        var shared = shared();
+        if (shared != null) {
+            shared.invalidate(tenant);
+        }
+    }
+
+    private AtomicLong invalidations(String tenant) {
+        return invalidations.computeIfAbsent(tenant, t -> new AtomicLong());
+    }
+
+    private SharedCacheTier shared() {
+        return sharedTier.isResolvable() ? sharedTier.get() : null;
+    }
+
+    private String sharedKey(ProductKey key) {
+        try {
+            return key.operation() + ":" + objectMapper.writeValueAsString(key.key());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not create the cache key of " + key.operation(), ex);
+        }
+    }
+
+    private <T> T fromShared(SharedCacheTier shared, String tenant, String key, Class<T> type) {
+        var bytes = shared.get(tenant, key);
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(bytes, type);
+        } catch (IOException ex) {
+            // incompatible value, it is replaced with the loaded one
+            return null;
+        }
+    }
+
+    private void toShared(SharedCacheTier shared, String tenant, String key, Object value) {
+        try {
+            shared.put(tenant, key, objectMapper.writeValueAsBytes(value),
+                    config.products().cache().sharedExpireAfterWrite());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize the cached value of " + key, ex);
+        }
+    }
+
+    private record ProductKey(String tenant, String operation, Object key) {
+    }
+}
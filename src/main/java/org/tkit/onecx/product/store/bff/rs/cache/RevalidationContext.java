@@ -0,0 +1,24 @@
+package org.tkit.onecx.product.store.bff.rs.cache;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * Principal token of a background revalidation. The revalidation runs after the request which
+ * triggered it, so the token is not propagated from the incoming headers and
+ * {@link RevalidationHeadersFilter} adds it to the downstream calls.
+ */
+@RequestScoped
+public class RevalidationContext {
+
+    public static final String PRINCIPAL_TOKEN_HEADER = "apm-principal-token";
+
+    private String principalToken;
+
+    public void principalToken(String principalToken) {
+        this.principalToken = principalToken;
+    }
+
+    public String principalToken() {
+        return principalToken;
+    }
+}
@@ -0,0 +1,32 @@
+package org.tkit.onecx.product.store.bff.rs.cache;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ext.Provider;
+
+import org.jboss.resteasy.reactive.client.spi.ResteasyReactiveClientRequestContext;
+import org.jboss.resteasy.reactive.client.spi.ResteasyReactiveClientRequestFilter;
+
+import io.quarkus.arc.Arc;
+
+/**
+ * Adds the principal token of the {@link RevalidationContext} to the downstream calls of a
+ * background revalidation.
+ */
+@Provider
+public class RevalidationHeadersFilter implements ResteasyReactiveClientRequestFilter {
+
+    @Inject
+    RevalidationContext revalidationContext;
+
+    @Override
+    public void filter(ResteasyReactiveClientRequestContext requestContext) {
+        if (!Arc.container().requestContext().isActive()) {
+            return;
+        }
+        var principalToken = revalidationContext.principalToken();
+        if (principalToken != null
+                && requestContext.getHeaderString(RevalidationContext.PRINCIPAL_TOKEN_HEADER) == null) {
+            requestContext.getHeaders().putSingle(RevalidationContext.PRINCIPAL_TOKEN_HEADER, principalToken);
+        }
+    }
+}
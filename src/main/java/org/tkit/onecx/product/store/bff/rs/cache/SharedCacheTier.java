@@ -0,0 +1,26 @@
+package org.tkit.onecx.product.store.bff.rs.cache;
+
+import java.time.Duration;
+
+/**
+ * Shared cache tier of the product reads used by all BFF instances, for example a distributed
+ * key-value store. The tier is optional, when no bean implements this interface only the local
+ * tier is used.
+ */
+public interface SharedCacheTier {
+
+    /**
+     * Returns the cached value or {@code null}.
+     */
+    byte[] get(String tenant, String key);
+
+    /**
+     * Stores the value of the key for the tenant.
+     */
+    void put(String tenant, String key, byte[] value, Duration ttl);
+
+    /**
+     * Removes all values of the tenant.
+     */
+    void invalidate(String tenant);
+}
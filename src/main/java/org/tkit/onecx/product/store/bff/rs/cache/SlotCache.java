@@ -0,0 +1,165 @@
+package org.tkit.onecx.product.store.bff.rs.cache;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
+import org.tkit.onecx.product.store.bff.rs.services.ContextKeys;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import gen.org.tkit.onecx.product.store.client.model.SlotPageResult;
+import gen.org.tkit.onecx.product.store.client.model.SlotSearchCriteria;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Tenant isolated cache of the slot search results. A secondary index by product name allows to
+ * invalidate only the results of the product whose slots were changed. Searches of requests without
+ * tenant are not cached.
+ */
+@ApplicationScoped
+public class SlotCache {
+
+    static final String CACHE_NAME = "onecx-product-store-slots";
+
+    static final int DEFAULT_PAGE_NUMBER = 0;
+
+    static final int DEFAULT_PAGE_SIZE = 100;
+
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final ConcurrentMap<ProductIndex, Set<SlotKey>> index = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, AtomicLong> invalidations = new ConcurrentHashMap<>();
+
+    private Cache<SlotKey, SlotPageResult> cache;
+
+    @PostConstruct
+    void init() {
+        var cacheConfig = config.slots().cache();
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheConfig.maxEntries())
+                .expireAfterWrite(cacheConfig.expireAfterWrite())
+                .<SlotKey, SlotPageResult> evictionListener((key, value, cause) -> {
+                    if (key != null) {
+                        unindex(key);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached search result of the criteria for the tenant of the current request, or
+     * loads and caches it.
+     *
+     * @param criteria the slot search criteria
+     * @param loader loads the search result from the product store
+     * @return the search result
+     */
+    public Uni<SlotPageResult> get(SlotSearchCriteria criteria, Supplier<Uni<SlotPageResult>> loader) {
+        var tenant = ContextKeys.tenant();
+        if (!config.slots().cache().enabled() || tenant == null) {
+            return loader.get();
+        }
+        var key = SlotKey.of(tenant, criteria);
+        var value = cache.getIfPresent(key);
+        if (value != null) {
+            return Uni.createFrom().item(value);
+        }
+        var invalidation = invalidations(tenant);
+        var generation = invalidation.get();
+        return loader.get().invoke(result -> {
+            // a write of the tenant during the load may not be visible in the result
+            if (result != null && generation == invalidation.get()) {
+                cache.put(key, result);
+                index.compute(key.index(), (k, keys) -> {
+                    var entries = keys != null ? keys : ConcurrentHashMap.<SlotKey> newKeySet();
+                    entries.add(key);
+                    return entries;
+                });
+                // explicit removals do not notify the eviction listener
+                if (generation != invalidation.get() && cache.asMap().remove(key, result)) {
+                    unindex(key);
+                }
+            }
+        });
+    }
+
+    /**
+     * Invalidates the cached search results of the product for the tenant of the current request,
+     * including the results of searches which are not restricted to a product.
+     *
+     * @param productName the name of the product whose slots changed, {@code null} if unknown
+     */
+    public void invalidate(String productName) {
+        var tenant = ContextKeys.tenant();
+        if (tenant == null) {
+            return;
+        }
+        invalidations(tenant).incrementAndGet();
+        var name = normalize(productName);
+        if (name == null) {
+            index.keySet().removeIf(key -> key.tenant().equals(tenant));
+            cache.asMap().keySet().removeIf(key -> key.tenant().equals(tenant));
+            return;
+        }
+        invalidate(new ProductIndex(tenant, name));
+        invalidate(new ProductIndex(tenant, null));
+    }
+
+    private void invalidate(ProductIndex productIndex) {
+        var keys = index.remove(productIndex);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    private AtomicLong invalidations(String tenant) {
+        return invalidations.computeIfAbsent(tenant, t -> new AtomicLong());
+    }
+
+    private void unindex(SlotKey key) {
+        index.computeIfPresent(key.index(), (k, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private record ProductIndex(String tenant, String productName) {
+    }
+
+    private record SlotKey(String tenant, String appId, String name, String productName, int pageNumber,
+            int pageSize) {
+
+        static SlotKey of(String tenant, SlotSearchCriteria criteria) {
+            return new SlotKey(tenant, normalize(criteria.getAppId()), normalize(criteria.getName()),
+                    normalize(criteria.getProductName()),
+                    criteria.getPageNumber() != null ? criteria.getPageNumber() : DEFAULT_PAGE_NUMBER,
+                    criteria.getPageSize() != null ? criteria.getPageSize() : DEFAULT_PAGE_SIZE);
+        }
+
+        ProductIndex index() {
+            return new ProductIndex(tenant, productName);
+        }
+    }
+}
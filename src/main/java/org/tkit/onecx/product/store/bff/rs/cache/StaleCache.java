@@ -0,0 +1,231 @@
+package org.tkit.onecx.product.store.bff.rs.cache;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.eclipse.microprofile.context.ThreadContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
+import org.tkit.onecx.product.store.bff.rs.services.ContextKeys;
+import org.tkit.quarkus.context.ApplicationContext;
+import org.tkit.quarkus.context.Context;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.arc.Arc;
+import io.smallrye.context.api.ManagedExecutorConfig;
+
+/**
+ * Tenant isolated store of read responses which are served stale. Within the stale-while-revalidate
+ * window the stale response is returned and reloaded in the background, within the stale-if-error
+ * window it is returned when the reload fails with a server error of the product store. Responses
+ * of requests without tenant are not stored.
+ * <p>
+ * The background reloads run after the triggering request in a new request context with its tenant,
+ * principal and principal token, see {@link #revalidate(String, Object, Runnable)}.
+ */
+@ApplicationScoped
+public class StaleCache {
+
+    private static final Logger log = LoggerFactory.getLogger(StaleCache.class);
+
+    static final String CACHE_NAME = "onecx-product-store-stale";
+
+    static final String METRIC_PREFIX = "onecx.product-store.stale.";
+
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    @ManagedExecutorConfig(propagated = {}, cleared = ThreadContext.ALL_REMAINING)
+    ManagedExecutor executor;
+
+    @Inject
+    StaleResponse staleResponse;
+
+    @Inject
+    RevalidationContext revalidationContext;
+
+    @Inject
+    HttpHeaders headers;
+
+    private final Set<StaleKey> revalidations = ConcurrentHashMap.newKeySet();
+
+    private final ConcurrentMap<String, AtomicLong> invalidations = new ConcurrentHashMap<>();
+
+    private Cache<StaleKey, Entry> cache;
+
+    @PostConstruct
+    void init() {
+        var stale = config.stale();
+        cache = Caffeine.newBuilder()
+                .maximumSize(stale.maxEntries())
+                .expireAfterWrite(retention(stale.fresh()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the time a response loaded at the given fresh period is retained for stale serving.
+     */
+    public Duration retention(Duration fresh) {
+        var stale = config.stale();
+        var window = stale.staleWhileRevalidate().compareTo(stale.staleIfError()) > 0
+                ? stale.staleWhileRevalidate()
+                : stale.staleIfError();
+        return fresh.plus(window);
+    }
+
+    /**
+     * Returns the fresh response of the operation, a stale response or loads it.
+     *
+     * @param operation the read operation
+     * @param key the arguments of the read, must implement equals and hash code
+     * @param loader loads the response from the product store
+     * @return the response
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String operation, Object key, Supplier<T> loader) {
+        var stale = config.stale();
+        var tenant = ContextKeys.tenant();
+        if (!stale.enabled() || tenant == null) {
+            return loader.get();
+        }
+        var staleKey = new StaleKey(tenant, operation, key);
+        var entry = cache.getIfPresent(staleKey);
+        var age = entry != null ? Duration.ofNanos(System.nanoTime() - entry.loadedAt()) : null;
+        if (age != null) {
+            if (age.compareTo(stale.fresh()) < 0) {
+                return (T) entry.value();
+            }
+            if (age.compareTo(stale.fresh().plus(stale.staleWhileRevalidate())) < 0) {
+                staleResponse.stale(StaleResponse.RESPONSE_IS_STALE);
+                var generation = invalidations(tenant).get();
+                revalidate(operation, key, () -> store(staleKey, loader.get(), generation));
+                return (T) entry.value();
+            }
+        }
+
+        var generation = invalidations(tenant).get();
+        try {
+            var value = loader.get();
+            store(staleKey, value, generation);
+            return value;
+        } catch (RuntimeException ex) {
+            if (age != null && age.compareTo(stale.fresh().plus(stale.staleIfError())) < 0 && serverError(ex)) {
+                counter("served-on-error", operation).increment();
+                staleResponse.stale(StaleResponse.REVALIDATION_FAILED);
+                return (T) entry.value();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Drops the responses of the operations for the tenant of the current request.
+     */
+    public void invalidate(String... operations) {
+        var tenant = ContextKeys.tenant();
+        if (tenant == null) {
+            return;
+        }
+        invalidations(tenant).incrementAndGet();
+        var names = Set.of(operations);
+        cache.asMap().keySet().removeIf(key -> key.tenant().equals(tenant) && names.contains(key.operation()));
+    }
+
+    /**
+     * Returns {@code true} for failures which stale responses can hide: server errors of the
+     * product store and connection failures.
+     */
+    public static boolean serverError(Throwable ex) {
+        if (ex instanceof WebApplicationException wae) {
+            return wae.getResponse().getStatus() >= Response.Status.INTERNAL_SERVER_ERROR.getStatusCode();
+        }
+        return ex instanceof ProcessingException;
+    }
+
+    /**
+     * Runs the reload of the operation in the background, unless a reload of the same key is in
+     * flight for the tenant of the current request. The reload runs in a new request context with
+     * the tenant, principal and principal token of the current request, failures are counted.
+     *
+     * @param operation the read operation
+     * @param key the arguments of the read, must implement equals and hash code
+     * @param reload reloads the response and stores it
+     */
+    public void revalidate(String operation, Object key, Runnable reload) {
+        var tenant = ContextKeys.tenant();
+        if (tenant == null) {
+            return;
+        }
+        var staleKey = new StaleKey(tenant, operation, key);
+        if (!revalidations.add(staleKey)) {
+            return;
+        }
+        var principal = ContextKeys.principal();
+        var principalToken = headers.getHeaderString(RevalidationContext.PRINCIPAL_TOKEN_HEADER);
+        executor.runAsync(() -> {
+            var requestContext = Arc.container().requestContext();
+            requestContext.activate();
+            ApplicationContext.start(Context.builder().tenantId(tenant).principal(principal).build());
+            try {
+                revalidationContext.principalToken(principalToken);
+                reload.run();
+            } catch (RuntimeException ex) {
+                counter("revalidation.failures", operation).increment();
+                log.debug("Revalidation of {} failed: {}", operation, ex.getMessage());
+            } finally {
+                ApplicationContext.close();
+                requestContext.terminate();
+                revalidations.remove(staleKey);
+            }
+        });
+    }
+
+    private void store(StaleKey key, Object value, long generation) {
+        // a write of the tenant during the load may not be visible in the value
+        if (value != null && generation == invalidations(key.tenant()).get()) {
+            cache.put(key, new Entry(value, System.nanoTime()));
+        }
+    }
+
+    private AtomicLong invalidations(String tenant) {
+        return invalidations.computeIfAbsent(tenant, t -> new AtomicLong());
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(METRIC_PREFIX + name)
+                .description("Stale responses: " + name)
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    private record StaleKey(String tenant, String operation, Object key) {
+    }
+
+    private record Entry(Object value, long loadedAt) {
+    }
+}
@@ -0,0 +1,30 @@
+package org.tkit.onecx.product.store.bff.rs.cache;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * Marks the response of the current request as stale.
+ */
+@RequestScoped
+public class StaleResponse {
+
+    /**
+     * The stale response is served while it is reloaded.
+     */
+    public static final String RESPONSE_IS_STALE = "110 - \"Response is Stale\"";
+
+    /**
+     * The stale response is served because the reload failed.
+     */
+    public static final String REVALIDATION_FAILED = "111 - \"Revalidation Failed\"";
+
+    private String warning;
+
+    public void stale(String warning) {
+        this.warning = warning;
+    }
+
+    public String warning() {
+        return warning;
+    }
+}
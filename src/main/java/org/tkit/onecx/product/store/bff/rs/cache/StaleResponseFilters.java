@@ -0,0 +1,32 @@
+package org.tkit.onecx.product.store.bff.rs.cache;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerResponseContext;
+
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
+
+/**
+ * Adds the {@code Warning} header to stale responses.
+ */
+public class StaleResponseFilters {
+
+    static final String WARNING = "Warning";
+
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    StaleResponse staleResponse;
+
+    @ServerResponseFilter
+    public void warning(ContainerResponseContext responseContext) {
+        if (!config.stale().enabled()) {
+            return;
+        }
+        var warning = staleResponse.warning();
+        if (warning != null) {
+            responseContext.getHeaders().putSingle(WARNING, warning);
+        }
+    }
+}
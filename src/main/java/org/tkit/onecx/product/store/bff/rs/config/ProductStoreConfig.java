@@ -0,0 +1,717 @@
+package org.tkit.onecx.product.store.bff.rs.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import io.quarkus.runtime.annotations.ConfigDocFilename;
+import io.quarkus.runtime.annotations.ConfigPhase;
+import io.quarkus.runtime.annotations.ConfigRoot;
+import io.quarkus.runtime.configuration.MemorySize;
+import io.quarkus.runtime.configuration.MemorySizeConverter;
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithConverter;
+import io.smallrye.config.WithDefault;
+import io.smallrye.config.WithName;
+
+/**
+ * Product store BFF configuration
+ */
+@ConfigDocFilename("onecx-product-store-bff.adoc")
+@ConfigMapping(prefix = "onecx.product-store")
+@ConfigRoot(phase = ConfigPhase.RUN_TIME)
+public interface ProductStoreConfig {
+
+    /**
+     * Product details configuration.
+     */
+    @WithName("details")
+    DetailsConfig details();
+
+    /**
+     * Batch configuration of products by names.
+     */
+    @WithName("batch")
+    BatchConfig batch();
+
+    /**
+     * Images configuration.
+     */
+    @WithName("images")
+    ImagesConfig images();
+
+    /**
+     * Products configuration.
+     */
+    @WithName("products")
+    ProductsConfig products();
+
+    /**
+     * Slots configuration.
+     */
+    @WithName("slots")
+    SlotsConfig slots();
+
+    /**
+     * Permissions configuration.
+     */
+    @WithName("permissions")
+    PermissionsConfig permissions();
+
+    /**
+     * Single-flight configuration of identical concurrent downstream calls.
+     */
+    @WithName("single-flight")
+    SingleFlightConfig singleFlight();
+
+    /**
+     * Hedging of idempotent downstream reads.
+     */
+    @WithName("hedging")
+    HedgingConfig hedging();
+
+    /**
+     * Adaptive concurrency limits of the requests per downstream client.
+     */
+    @WithName("limiter")
+    LimiterConfig limiter();
+
+    /**
+     * Serving of stale read responses.
+     */
+    @WithName("stale")
+    StaleConfig stale();
+
+    /**
+     * Log configuration of the controller parameters.
+     */
+    @WithName("log")
+    LogConfig log();
+
+    /**
+     * Metrics configuration of the downstream calls.
+     */
+    @WithName("metrics")
+    MetricsConfig metrics();
+
+    /**
+     * Server-Timing response header configuration.
+     */
+    @WithName("server-timing")
+    ServerTimingConfig serverTiming();
+
+    /**
+     * Transcoding configuration of the pass-through searches.
+     */
+    @WithName("transcoding")
+    TranscodingConfig transcoding();
+
+    /**
+     * Virtual threads configuration.
+     */
+    @WithName("virtual-threads")
+    VirtualThreadsConfig virtualThreads();
+
+    /**
+     * Client credentials tokens of the downstream clients.
+     */
+    @WithName("tokens")
+    TokensConfig tokens();
+
+    /**
+     * Product details configuration.
+     */
+    interface DetailsConfig {
+
+        /**
+         * Behaviour when one of the downstream searches of the product details fails.
+         * {@code FAIL_FAST} fails the whole request, {@code PARTIAL} returns the sections
+         * which succeeded together with a problem detail for each failed section.
+         */
+        @WithName("failure-mode")
+        @WithDefault("FAIL_FAST")
+        FailureMode failureMode();
+    }
+
+    /**
+     * Batch configuration of products by names.
+     */
+    interface BatchConfig {
+
+        /**
+         * Maximum number of names in one batch request.
+         */
+        @WithName("max-names")
+        @WithDefault("50")
+        int maxNames();
+
+        /**
+         * Maximum number of concurrent downstream calls of one batch request.
+         */
+        @WithName("parallelism")
+        @WithDefault("8")
+        int parallelism();
+    }
+
+    /**
+     * Images configuration.
+     */
+    interface ImagesConfig {
+
+        /**
+         * Images cache configuration.
+         */
+        @WithName("cache")
+        ImageCacheConfig cache();
+
+        /**
+         * Images upload configuration.
+         */
+        @WithName("upload")
+        ImageUploadConfig upload();
+
+        /**
+         * Images resize configuration.
+         */
+        @WithName("resize")
+        ImageResizeConfig resize();
+    }
+
+    /**
+     * Products configuration.
+     */
+    interface ProductsConfig {
+
+        /**
+         * Products read cache configuration.
+         */
+        @WithName("cache")
+        ProductCacheConfig cache();
+    }
+
+    /**
+     * Products read cache configuration. The entries are isolated by tenant.
+     */
+    interface ProductCacheConfig {
+
+        /**
+         * Enable the products read cache.
+         */
+        @WithName("enabled")
+        @WithDefault("true")
+        boolean enabled();
+
+        /**
+         * Maximum number of entries of the local cache tier.
+         */
+        @WithName("max-entries")
+        @WithDefault("1000")
+        long maxEntries();
+
+        /**
+         * Maximum staleness of the local cache tier, it bounds the time in which writes made
+         * through other BFF instances are not visible.
+         */
+        @WithName("expire-after-write")
+        @WithDefault("30S")
+        Duration expireAfterWrite();
+
+        /**
+         * Time to live of the entries in the shared cache tier, if one is available.
+         */
+        @WithName("shared-expire-after-write")
+        @WithDefault("10M")
+        Duration sharedExpireAfterWrite();
+    }
+
+    /**
+     * Slots configuration.
+     */
+    interface SlotsConfig {
+
+        /**
+         * Slot search cache configuration.
+         */
+        @WithName("cache")
+        SlotCacheConfig cache();
+    }
+
+    /**
+     * Slot search cache configuration. The entries are isolated by tenant and invalidated by product name.
+     * While enabled, each slot update and delete first loads the stored slot to find its previous product
+     * name, which adds a blocking {@code getSlot} round trip to the product store to these writes.
+     */
+    interface SlotCacheConfig {
+
+        /**
+         * Enable the slot search cache.
+         */
+        @WithName("enabled")
+        @WithDefault("true")
+        boolean enabled();
+
+        /**
+         * Maximum number of cached search results.
+         */
+        @WithName("max-entries")
+        @WithDefault("1000")
+        long maxEntries();
+
+        /**
+         * Maximum staleness of the cached search results, it bounds the time in which writes made
+         * through other BFF instances are not visible.
+         */
+        @WithName("expire-after-write")
+        @WithDefault("5M")
+        Duration expireAfterWrite();
+    }
+
+    /**
+     * Permissions configuration.
+     */
+    interface PermissionsConfig {
+
+        /**
+         * Cache of the resolved permissions of the {@code onecx_permission} client.
+         */
+        @WithName("cache")
+        PermissionCacheConfig cache();
+    }
+
+    /**
+     * Cache of the resolved permissions, keyed by the hash of the principal token and the application.
+     */
+    interface PermissionCacheConfig {
+
+        /**
+         * Enable the permissions cache.
+         */
+        @WithName("enabled")
+        @WithDefault("true")
+        boolean enabled();
+
+        /**
+         * Maximum number of cached permission sets.
+         */
+        @WithName("max-entries")
+        @WithDefault("10000")
+        long maxEntries();
+
+        /**
+         * Maximum staleness of the cached permissions, changed role assignments are visible
+         * after this time at the latest.
+         */
+        @WithName("expire-after-write")
+        @WithDefault("30S")
+        Duration expireAfterWrite();
+    }
+
+    /**
+     * Images upload configuration.
+     */
+    interface ImageUploadConfig {
+
+        /**
+         * Maximum size of an uploaded image. Bigger uploads are rejected before they are sent to the product store.
+         * Uploads without content length are buffered up to this size to send their size to the product store.
+         */
+        @WithName("max-size")
+        @WithDefault("1M")
+        @WithConverter(MemorySizeConverter.class)
+        MemorySize maxSize();
+
+        /**
+         * Allowed content types of an uploaded image.
+         */
+        @WithName("content-types")
+        @WithDefault("image/png,image/jpeg,image/jpg,image/gif,image/svg+xml,image/webp,image/x-icon,image/vnd.microsoft.icon,image/bmp")
+        List<String> contentTypes();
+    }
+
+    /**
+     * Images resize configuration.
+     */
+    interface ImageResizeConfig {
+
+        /**
+         * Maximum number of pixels of an image which is decoded for resizing. The dimensions are read
+         * from the image header, bigger images are returned without resizing.
+         */
+        @WithName("max-pixels")
+        @WithDefault("16000000")
+        long maxPixels();
+    }
+
+    /**
+     * Images cache configuration.
+     */
+    interface ImageCacheConfig {
+
+        /**
+         * Enable the in-memory images cache.
+         */
+        @WithName("enabled")
+        @WithDefault("true")
+        boolean enabled();
+
+        /**
+         * Maximum total size of all cached images.
+         */
+        @WithName("max-size")
+        @WithDefault("32M")
+        @WithConverter(MemorySizeConverter.class)
+        MemorySize maxSize();
+
+        /**
+         * Maximum size of a single cached image. Bigger images are streamed and not cached.
+         */
+        @WithName("max-entry-size")
+        @WithDefault("1M")
+        @WithConverter(MemorySizeConverter.class)
+        MemorySize maxEntrySize();
+
+        /**
+         * Time after which a cached image expires.
+         */
+        @WithName("expire-after-write")
+        @WithDefault("1H")
+        Duration expireAfterWrite();
+    }
+
+    /**
+     * Single-flight configuration of identical concurrent downstream calls.
+     */
+    interface SingleFlightConfig {
+
+        /**
+         * Enable coalescing of identical concurrent downstream calls.
+         */
+        @WithName("enabled")
+        @WithDefault("true")
+        boolean enabled();
+
+        /**
+         * Scope in which identical calls are coalesced, see {@link SingleFlightScope}.
+         */
+        @WithName("scope")
+        @WithDefault("TENANT")
+        SingleFlightScope scope();
+
+        /**
+         * Enable or disable the coalescing per operation id, for example {@code getProductByName=false}.
+         */
+        @WithName("operations")
+        Map<String, Boolean> operations();
+    }
+
+    /**
+     * Hedging of idempotent downstream reads. A second identical request is sent when the first
+     * one is slower than the configured percentile of the recent latencies, the first response wins.
+     */
+    interface HedgingConfig {
+
+        /**
+         * Enable hedging of the downstream reads.
+         */
+        @WithName("enabled")
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * Percentile of the recent latencies of the operation after which the hedge is sent.
+         */
+        @WithName("percentile")
+        @WithDefault("0.95")
+        double percentile();
+
+        /**
+         * Minimum delay of the hedge.
+         */
+        @WithName("min-delay")
+        @WithDefault("10ms")
+        Duration minDelay();
+
+        /**
+         * Number of recorded latencies of the operation before hedges are sent.
+         */
+        @WithName("min-samples")
+        @WithDefault("20")
+        int minSamples();
+
+        /**
+         * Maximum of additional hedge requests in percent of the downstream reads.
+         */
+        @WithName("budget")
+        @WithDefault("10")
+        int budget();
+
+        /**
+         * Enable or disable the hedging per operation id, for example {@code searchProducts=false}.
+         */
+        @WithName("operations")
+        Map<String, Boolean> operations();
+    }
+
+    /**
+     * Adaptive concurrency limits of the calls per downstream client. The limit grows by one
+     * while the calls are fast and the limit is used, and shrinks by the backoff ratio when
+     * the latency exceeds the threshold or the downstream service fails with a server error.
+     */
+    interface LimiterConfig {
+
+        /**
+         * Enable the concurrency limits, requests above the limit are rejected with status 503.
+         */
+        @WithName("enabled")
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * Initial concurrency limit of each downstream client.
+         */
+        @WithName("initial-limit")
+        @WithDefault("20")
+        int initialLimit();
+
+        /**
+         * Lower bound of the concurrency limit.
+         */
+        @WithName("min-limit")
+        @WithDefault("5")
+        int minLimit();
+
+        /**
+         * Upper bound of the concurrency limit.
+         */
+        @WithName("max-limit")
+        @WithDefault("200")
+        int maxLimit();
+
+        /**
+         * Latency of a request above which the limit is decreased.
+         */
+        @WithName("latency-threshold")
+        @WithDefault("1S")
+        Duration latencyThreshold();
+
+        /**
+         * Factor applied to the limit when it is decreased.
+         */
+        @WithName("backoff-ratio")
+        @WithDefault("0.9")
+        double backoffRatio();
+
+        /**
+         * Value of the {@code Retry-After} header of rejected requests.
+         */
+        @WithName("retry-after")
+        @WithDefault("1S")
+        Duration retryAfter();
+    }
+
+    /**
+     * Serving of stale read responses of {@code getProduct}, {@code getMicrofrontend}, {@code getSlot},
+     * {@code searchProducts} and the images. Stale responses carry a {@code Warning} header.
+     */
+    interface StaleConfig {
+
+        /**
+         * Enable serving of stale responses.
+         */
+        @WithName("enabled")
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * Age until which a response is fresh, the images use the expiry of the images cache.
+         */
+        @WithName("fresh")
+        @WithDefault("5S")
+        Duration fresh();
+
+        /**
+         * Time after the fresh period in which a stale response is served while it is reloaded
+         * in the background.
+         */
+        @WithName("stale-while-revalidate")
+        @WithDefault("30S")
+        Duration staleWhileRevalidate();
+
+        /**
+         * Time after the fresh period in which a stale response is served when the product store
+         * fails with a server error or is not reachable.
+         */
+        @WithName("stale-if-error")
+        @WithDefault("5M")
+        Duration staleIfError();
+
+        /**
+         * Maximum number of retained responses.
+         */
+        @WithName("max-entries")
+        @WithDefault("1000")
+        long maxEntries();
+    }
+
+    /**
+     * Log configuration of the controller parameters.
+     */
+    interface LogConfig {
+
+        /**
+         * Rate of the requests between 0 and 1 which log the full parameters of the read endpoints, the
+         * {@code GET} requests and the searches. The decision is taken once per request, the parameters
+         * of all other read requests are logged as a constant summary.
+         */
+        @WithName("read-sample-rate")
+        @WithDefault("1")
+        double readSampleRate();
+    }
+
+    /**
+     * Metrics configuration of the downstream calls.
+     */
+    interface MetricsConfig {
+
+        /**
+         * Add the tenant as tag to the timers of the downstream calls.
+         */
+        @WithName("tenant-tags")
+        @WithDefault("false")
+        boolean tenantTags();
+
+        /**
+         * Maximum number of tenants with their own tag value, the calls of all other tenants
+         * are tagged with {@code other}.
+         */
+        @WithName("max-tenants")
+        @WithDefault("50")
+        int maxTenants();
+    }
+
+    /**
+     * Server-Timing response header configuration.
+     */
+    interface ServerTimingConfig {
+
+        /**
+         * Enable the Server-Timing response header for requested or sampled requests.
+         */
+        @WithName("enabled")
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * Request header which requests the Server-Timing response header with the value {@code true}.
+         */
+        @WithName("request-header")
+        @WithDefault("X-Server-Timing")
+        String requestHeader();
+
+        /**
+         * Rate of the requests between 0 and 1 which get the Server-Timing response header without request header.
+         */
+        @WithName("sample-rate")
+        @WithDefault("0")
+        double sampleRate();
+    }
+
+    /**
+     * Transcoding configuration of the pass-through searches.
+     */
+    interface TranscodingConfig {
+
+        /**
+         * Transcode the svc JSON of the searches directly into the BFF JSON instead of mapping
+         * the client model objects to DTO objects.
+         */
+        @WithName("enabled")
+        @WithDefault("false")
+        boolean enabled();
+    }
+
+    /**
+     * Virtual threads configuration.
+     */
+    interface VirtualThreadsConfig {
+
+        /**
+         * Count pinned virtual threads with the JFR {@code jdk.VirtualThreadPinned} event.
+         * Only active when virtual threads are enabled.
+         */
+        @WithName("pinning-detection")
+        @WithDefault("true")
+        boolean pinningDetection();
+
+        /**
+         * Minimum duration of a pinned virtual thread to be counted.
+         */
+        @WithName("pinning-threshold")
+        @WithDefault("20ms")
+        Duration pinningThreshold();
+    }
+
+    /**
+     * Client credentials tokens of the downstream clients.
+     */
+    interface TokensConfig {
+
+        /**
+         * Refresh the token in the background before it expires, otherwise it is refreshed by
+         * the first request after its expiry.
+         */
+        @WithName("proactive-refresh")
+        @WithDefault("true")
+        boolean proactiveRefresh();
+
+        /**
+         * Time before the expiry of the token at which it is refreshed. Tokens with a shorter
+         * lifetime are refreshed after half of their lifetime.
+         */
+        @WithName("refresh-ahead")
+        @WithDefault("30S")
+        Duration refreshAhead();
+
+        /**
+         * Delay of the next attempt after a failed background refresh.
+         */
+        @WithName("retry-delay")
+        @WithDefault("5S")
+        Duration retryDelay();
+
+        /**
+         * Minimum remaining lifetime of a token used for a downstream call, tokens which expire
+         * sooner are replaced first so they do not expire in flight.
+         */
+        @WithName("expiry-skew")
+        @WithDefault("10S")
+        Duration expirySkew();
+    }
+
+    /**
+     * Scope of the coalesced calls. The product store isolates its data by tenant and returns the
+     * same data to every user of a tenant, which is why the product, slot and stale caches are
+     * shared by all users of a tenant and single-flight coalesces per tenant by default.
+     */
+    enum SingleFlightScope {
+
+        /**
+         * Shares a downstream response between all users of the tenant.
+         */
+        TENANT,
+
+        /**
+         * Shares a downstream response only between the requests of the same user, for product
+         * stores which return per-user data. The caches must be disabled in that case.
+         */
+        PRINCIPAL;
+    }
+
+    /**
+     * Failure mode of the product details aggregation.
+     */
+    enum FailureMode {
+        FAIL_FAST,
+        PARTIAL;
+    }
+}
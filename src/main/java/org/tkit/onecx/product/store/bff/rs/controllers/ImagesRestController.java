@@ -1,29 +1,54 @@
 package org.tkit.onecx.product.store.bff.rs.controllers;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Function;
+
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.resteasy.reactive.ClientWebApplicationException;
+import org.jboss.resteasy.reactive.RestResponse;
 import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
+import org.tkit.onecx.product.store.bff.rs.cache.CachedImage;
+import org.tkit.onecx.product.store.bff.rs.cache.ImageCache;
+import org.tkit.onecx.product.store.bff.rs.cache.StaleCache;
+import org.tkit.onecx.product.store.bff.rs.cache.StaleResponse;
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
 import org.tkit.onecx.product.store.bff.rs.mappers.ExceptionMapper;
 import org.tkit.onecx.product.store.bff.rs.mappers.ImagesMapper;
+import org.tkit.onecx.product.store.bff.rs.services.ImageResizeService;
 import org.tkit.quarkus.log.cdi.LogService;
 
 import gen.org.tkit.onecx.product.store.bff.rs.internal.ImagesInternalApiService;
 import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ImageInfoDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProblemDetailResponseDTO;
 import gen.org.tkit.onecx.product.store.bff.rs.internal.model.RefTypeDTO;
 import gen.org.tkit.onecx.product.store.client.api.ImagesInternalApi;
 import gen.org.tkit.onecx.product.store.client.model.ImageInfo;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.mutiny.Uni;
 
 @ApplicationScoped
+@RunOnVirtualThread
 @Transactional(value = Transactional.TxType.NOT_SUPPORTED)
 @LogService
 public class ImagesRestController implements ImagesInternalApiService {
 
+    private static final String GET_IMAGE = "getImage";
+
     @Inject
     @RestClient
     ImagesInternalApi imageApi;
@@ -37,43 +62,375 @@ public class ImagesRestController implements ImagesInternalApiService {
     @Inject
     HttpHeaders headers;
 
+    @Inject
+    ImageCache imageCache;
+
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    ImageResizeService resizeService;
+
+    @Inject
+    StaleResponse staleResponse;
+
+    @Inject
+    StaleCache staleCache;
+
     @Override
-    public Response deleteImage(String refId, RefTypeDTO refType) {
+    public Uni<Response> deleteImage(String refId, RefTypeDTO refType) {
         try (Response response = imageApi.deleteImage(refId, imageMapper.map(refType))) {
-            return Response.status(response.getStatus()).build();
+            return Uni.createFrom().item(Response.status(response.getStatus()).build());
+        } finally {
+            imageCache.invalidate(refId, refType);
         }
     }
 
     @Override
-    public Response getImage(String refId, RefTypeDTO refType) {
-        Response.ResponseBuilder responseBuilder;
-        try (Response response = imageApi.getImage(refId, imageMapper.map(refType))) {
+    public Uni<Response> getImage(String refId, RefTypeDTO refType, Integer w, Integer h, String format) {
+        return Uni.createFrom().item(image(refId, refType, w, h, format));
+    }
+
+    private Response image(String refId, RefTypeDTO refType, Integer w, Integer h, String format) {
+        var ifNoneMatch = headers.getHeaderString(HttpHeaders.IF_NONE_MATCH);
+        if (w == null && h == null && format == null) {
+            var cached = imageCache.get(refId, refType);
+            if (cached != null) {
+                return imageResponse(Response.Status.OK.getStatusCode(), cached, ifNoneMatch);
+            }
+            return originalImage(refId, refType, ifNoneMatch);
+        }
+
+        var outputFormat = resizeService.outputFormat(format, headers.getAcceptableMediaTypes());
+        var response = variantImage(refId, refType, w, h, outputFormat, ifNoneMatch);
+        if (format != null) {
+            return response;
+        }
+        // the output format was selected by the Accept header, shared caches must not mix the formats
+        return Response.fromResponse(response).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
+    }
+
+    private Response variantImage(String refId, RefTypeDTO refType, Integer w, Integer h,
+            ImageResizeService.OutputFormat outputFormat, String ifNoneMatch) {
+        var variant = resizeService.variant(w, h, outputFormat);
+        var cached = imageCache.get(refId, refType, variant);
+        if (cached != null) {
+            return imageResponse(Response.Status.OK.getStatusCode(), cached, ifNoneMatch);
+        }
+        var original = imageCache.get(refId, refType);
+        if (original != null) {
+            return variantResponse(refId, refType, original, w, h, outputFormat, ifNoneMatch);
+        }
+        return upstreamImage(refId, refType, null, true,
+                image -> variantResponse(refId, refType, image, w, h, outputFormat, ifNoneMatch));
+    }
+
+    /**
+     * Loads the original image. If stale serving is enabled, an expired cached image is returned
+     * while it is reloaded, or when the product store fails.
+     */
+    private Response originalImage(String refId, RefTypeDTO refType, String ifNoneMatch) {
+        var stale = config.stale();
+        if (stale.enabled()) {
+            var image = imageCache.getStale(refId, refType, stale.staleWhileRevalidate());
+            if (image != null) {
+                staleResponse.stale(StaleResponse.RESPONSE_IS_STALE);
+                revalidateImage(refId, refType);
+                return imageResponse(Response.Status.OK.getStatusCode(), image, ifNoneMatch);
+            }
+        }
+        try {
+            return upstreamImage(refId, refType, ifNoneMatch, imageCache.enabled(),
+                    image -> imageResponse(Response.Status.OK.getStatusCode(), image, ifNoneMatch));
+        } catch (WebApplicationException | ProcessingException ex) {
+            var image = stale.enabled() && StaleCache.serverError(ex)
+                    ? imageCache.getStale(refId, refType, stale.staleIfError())
+                    : null;
+            if (image == null) {
+                throw ex;
+            }
+            staleResponse.stale(StaleResponse.REVALIDATION_FAILED);
+            return imageResponse(Response.Status.OK.getStatusCode(), image, ifNoneMatch);
+        }
+    }
+
+    /**
+     * Reloads the original image into the images cache in the background.
+     */
+    private void revalidateImage(String refId, RefTypeDTO refType) {
+        staleCache.revalidate(GET_IMAGE, refId + "/" + refType, () -> {
+            try (Response response = imageApi.getImage(refId, imageMapper.map(refType))) {
+                var contentType = response.getHeaderString(HttpHeaders.CONTENT_TYPE);
+                var length = parseLength(response.getHeaderString(HttpHeaders.CONTENT_LENGTH));
+                if (contentType == null || !imageCache.fits(length)) {
+                    return;
+                }
+                var body = openBody(response);
+                if (body != null) {
+                    try (body) {
+                        imageCache.load(refId, refType, contentType,
+                                strongEtag(response.getHeaderString(HttpHeaders.ETAG)), body, (int) length);
+                    }
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private Response variantResponse(String refId, RefTypeDTO refType, CachedImage original, Integer w, Integer h,
+            ImageResizeService.OutputFormat outputFormat, String ifNoneMatch) {
+        var resized = resizeService.resize(original, w, h, outputFormat);
+        if (resized == null) {
+            return imageResponse(Response.Status.OK.getStatusCode(), original, ifNoneMatch);
+        }
+        var image = imageCache.store(refId, refType, resizeService.variant(w, h, outputFormat),
+                outputFormat.mediaType(), resized);
+        return imageResponse(Response.Status.OK.getStatusCode(), image, ifNoneMatch);
+    }
+
+    /**
+     * Loads the original image from the product store. If {@code buffer} is set, images which fit
+     * into the image buffer are passed to the {@code buffered} function, all other images are
+     * streamed to the client. Streamed images carry only a strong upstream entity tag.
+     */
+    private Response upstreamImage(String refId, RefTypeDTO refType, String ifNoneMatch, boolean buffer,
+            Function<CachedImage, Response> buffered) {
+        Response response = imageApi.getImage(refId, imageMapper.map(refType));
+        try {
+            var etag = strongEtag(response.getHeaderString(HttpHeaders.ETAG));
+            if (response.getStatus() == Response.Status.OK.getStatusCode() && matches(ifNoneMatch, etag)) {
+                response.close();
+                return notModified(etag);
+            }
+
             var contentType = response.getHeaderString(HttpHeaders.CONTENT_TYPE);
             var contentLength = response.getHeaderString(HttpHeaders.CONTENT_LENGTH);
-            var body = response.readEntity(byte[].class);
-            if (contentType != null && body.length != 0) {
-                responseBuilder = Response.status(response.getStatus())
-                        .header(HttpHeaders.CONTENT_TYPE, contentType)
-                        .header(HttpHeaders.CONTENT_LENGTH, contentLength)
-                        .entity(body);
-            } else {
-                responseBuilder = Response.status(Response.Status.BAD_REQUEST);
+            var body = contentType != null && !"0".equals(contentLength) ? openBody(response) : null;
+            if (body == null) {
+                response.close();
+                return Response.status(Response.Status.BAD_REQUEST).build();
+            }
+
+            var length = parseLength(contentLength);
+            if (buffer && response.getStatus() == Response.Status.OK.getStatusCode() && imageCache.fits(length)) {
+                try (response; body) {
+                    return buffered.apply(imageCache.load(refId, refType, contentType, etag, body, (int) length));
+                }
             }
 
+            StreamingOutput output = out -> {
+                try (response; body) {
+                    body.transferTo(out);
+                }
+            };
+            var responseBuilder = Response.status(response.getStatus())
+                    .header(HttpHeaders.CONTENT_TYPE, contentType)
+                    .entity(output);
+            if (contentLength != null) {
+                responseBuilder.header(HttpHeaders.CONTENT_LENGTH, contentLength);
+            }
+            if (etag != null) {
+                responseBuilder.header(HttpHeaders.ETAG, etag);
+            }
             return responseBuilder.build();
+        } catch (IOException ex) {
+            response.close();
+            throw new UncheckedIOException(ex);
+        } catch (RuntimeException ex) {
+            response.close();
+            throw ex;
         }
     }
 
     @Override
-    public Response uploadImage(String refId, RefTypeDTO refType, byte[] body) {
+    public Uni<Response> uploadImage(String refId, RefTypeDTO refType, InputStream body) {
+        return Uni.createFrom().item(upload(refId, refType, body));
+    }
+
+    private Response upload(String refId, RefTypeDTO refType, InputStream body) {
+        var uploadConfig = config.images().upload();
+        var mediaType = headers.getMediaType();
+        if (mediaType == null || !uploadConfig.contentTypes()
+                .contains((mediaType.getType() + "/" + mediaType.getSubtype()).toLowerCase())) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(exceptionMapper.exception("IMAGE_CONTENT_TYPE", "Content type " + mediaType + " is not allowed"))
+                    .build();
+        }
+        var maxSize = uploadConfig.maxSize().asLongValue();
+        if (headers.getLength() > maxSize) {
+            return imageTooLarge(maxSize);
+        }
 
-        try (Response response = imageApi.uploadImage(headers.getLength(), refId, imageMapper.map(refType),
-                body)) {
+        var limitedBody = new LimitedInputStream(body, maxSize);
+        InputStream uploadBody = limitedBody;
+        var length = headers.getLength();
+        if (length < 0) {
+            // a chunked upload is buffered up to the limit, the product store gets its real size
+            try {
+                var bytes = limitedBody.readAllBytes();
+                length = bytes.length;
+                uploadBody = new ByteArrayInputStream(bytes);
+            } catch (IOException ex) {
+                if (limitedBody.exceeded) {
+                    return imageTooLarge(maxSize);
+                }
+                throw new UncheckedIOException(ex);
+            }
+        }
+        try (Response response = imageApi.uploadImage(length, refId, imageMapper.map(refType), uploadBody)) {
             ImageInfoDTO imageInfoDTO = imageMapper.map(response.readEntity(ImageInfo.class));
             return Response.status(response.getStatus()).entity(imageInfoDTO).build();
+        } catch (RuntimeException ex) {
+            // the client wraps the failure of the body stream
+            if (limitedBody.exceeded) {
+                return imageTooLarge(maxSize);
+            }
+            throw ex;
+        } finally {
+            imageCache.invalidate(refId, refType);
+        }
+    }
+
+    private Response imageTooLarge(long maxSize) {
+        return Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE)
+                .entity(exceptionMapper.exception("IMAGE_TOO_LARGE", "Image must be less than or equal to " + maxSize))
+                .build();
+    }
+
+    private static Response imageResponse(int status, CachedImage image, String ifNoneMatch) {
+        if (matches(ifNoneMatch, image.etag())) {
+            return notModified(image.etag());
+        }
+        return Response.status(status)
+                .header(HttpHeaders.CONTENT_TYPE, image.contentType())
+                .header(HttpHeaders.CONTENT_LENGTH, image.length())
+                .header(HttpHeaders.ETAG, image.etag())
+                .entity((StreamingOutput) image::writeTo)
+                .build();
+    }
+
+    private static Response notModified(String etag) {
+        return Response.status(Response.Status.NOT_MODIFIED).header(HttpHeaders.ETAG, etag).build();
+    }
+
+    /**
+     * Weak comparison of the {@code If-None-Match} header with the entity tag of the image.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        var tag = opaqueTag(etag);
+        for (var item : ifNoneMatch.split(",")) {
+            var value = item.trim();
+            if ("*".equals(value) || opaqueTag(value).equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String etag) {
+        return isWeak(etag) ? etag.substring(2) : etag;
+    }
+
+    /**
+     * Returns the upstream entity tag if it is a strong validator, weak entity tags are dropped.
+     */
+    private static String strongEtag(String etag) {
+        return etag == null || isWeak(etag) ? null : etag;
+    }
+
+    private static boolean isWeak(String etag) {
+        return etag.startsWith("W/");
+    }
+
+    private static long parseLength(String contentLength) {
+        if (contentLength == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentLength);
+        } catch (NumberFormatException ex) {
+            return -1;
         }
     }
 
+    /**
+     * Opens the upstream image body as stream without copying it into a byte array.
+     * The first chunk is read ahead to detect an empty body when the upstream response
+     * does not contain a content length.
+     *
+     * @return the body stream or {@code null} if the body is empty
+     */
+    private static InputStream openBody(Response response) {
+        if (!response.hasEntity()) {
+            return null;
+        }
+        var body = new PushbackInputStream(response.readEntity(InputStream.class));
+        try {
+            int first = body.read();
+            if (first == -1) {
+                body.close();
+                return null;
+            }
+            body.unread(first);
+            return body;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Request body stream which fails as soon as more than the allowed number of bytes was read,
+     * so that an upload without content length is never read completely.
+     */
+    static class LimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+
+        private long count;
+
+        boolean exceeded;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result != -1) {
+                count(1);
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int result = super.read(b, off, len);
+            if (result > 0) {
+                count(result);
+            }
+            return result;
+        }
+
+        private void count(int read) throws IOException {
+            count += read;
+            if (count > limit) {
+                exceeded = true;
+                throw new IOException("Image exceeds the maximum upload size of " + limit + " bytes");
+            }
+        }
+    }
+
+    @ServerExceptionMapper
+    public RestResponse<ProblemDetailResponseDTO> constraint(ConstraintViolationException ex) {
+        return exceptionMapper.constraint(ex);
+    }
+
     @ServerExceptionMapper
     public Response restException(ClientWebApplicationException ex) {
         return exceptionMapper.clientException(ex);
@@ -5,15 +5,20 @@ import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.resteasy.reactive.ClientWebApplicationException;
 import org.jboss.resteasy.reactive.RestResponse;
 import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
+import org.tkit.onecx.product.store.bff.rs.cache.StaleCache;
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
 import org.tkit.onecx.product.store.bff.rs.mappers.ExceptionMapper;
 import org.tkit.onecx.product.store.bff.rs.mappers.MicrofrontendsMapper;
 import org.tkit.onecx.product.store.bff.rs.mappers.ProblemDetailMapper;
+import org.tkit.onecx.product.store.bff.rs.services.Hedging;
+import org.tkit.onecx.product.store.bff.rs.services.JsonTranscoder;
 import org.tkit.quarkus.log.cdi.LogService;
 
 import gen.org.tkit.onecx.product.store.bff.rs.internal.MicrofrontendsApiService;
@@ -21,17 +26,32 @@ import gen.org.tkit.onecx.product.store.bff.rs.internal.model.*;
 import gen.org.tkit.onecx.product.store.client.api.MicrofrontendsInternalApi;
 import gen.org.tkit.onecx.product.store.client.model.Microfrontend;
 import gen.org.tkit.onecx.product.store.client.model.MicrofrontendPageResult;
-import gen.org.tkit.onecx.product.store.client.model.ProblemDetailResponse;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.mutiny.Uni;
 
 @LogService
 @ApplicationScoped
 @Transactional(value = Transactional.TxType.NOT_SUPPORTED)
 public class MicrofrontendsRestController implements MicrofrontendsApiService {
 
+    private static final String GET_MICROFRONTEND = "getMicrofrontend";
+
     @RestClient
     @Inject
     MicrofrontendsInternalApi client;
 
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    JsonTranscoder transcoder;
+
+    @Inject
+    Hedging hedging;
+
+    @Inject
+    StaleCache staleCache;
+
     private final MicrofrontendsMapper mapper;
 
     private final ProblemDetailMapper problemDetailMapper;
@@ -48,53 +68,67 @@ public class MicrofrontendsRestController implements MicrofrontendsApiService {
     }
 
     @Override
-    public Response createMicrofrontend(CreateMicrofrontendRequestDTO createMicrofrontendRequestDTO) {
+    @RunOnVirtualThread
+    public Uni<Response> createMicrofrontend(CreateMicrofrontendRequestDTO createMicrofrontendRequestDTO) {
 
         try (Response response = client.createMicrofrontend(mapper.mapCreateMfe(createMicrofrontendRequestDTO))) {
+            staleCache.invalidate(GET_MICROFRONTEND);
             Microfrontend createdMfe = response.readEntity(Microfrontend.class);
             MicrofrontendDTO createdMfeDTO = mapper.mapMfe(createdMfe);
-            return Response.status(response.getStatus()).entity(createdMfeDTO).build();
+            return Uni.createFrom().item(Response.status(response.getStatus()).entity(createdMfeDTO).build());
         } catch (WebApplicationException ex) {
-            return Response.status(ex.getResponse().getStatus())
-                    .entity(problemDetailMapper.map(ex.getResponse().readEntity(ProblemDetailResponse.class))).build();
+            return Uni.createFrom().item(problemDetailMapper.problemDetail(ex));
         }
     }
 
     @Override
-    public Response deleteMicrofrontend(String id) {
+    @RunOnVirtualThread
+    public Uni<Response> deleteMicrofrontend(String id) {
         try (Response response = client.deleteMicrofrontend(id)) {
-            return Response.status(response.getStatus()).build();
+            staleCache.invalidate(GET_MICROFRONTEND);
+            return Uni.createFrom().item(Response.status(response.getStatus()).build());
         }
     }
 
     @Override
-    public Response getMicrofrontend(String id) {
-
-        try (Response response = client.getMicrofrontend(id)) {
-            Microfrontend resultMfe = response.readEntity(Microfrontend.class);
-            MicrofrontendDTO resultProductDTO = mapper.mapMfe(resultMfe);
-            return Response.status(response.getStatus()).entity(resultProductDTO).build();
-        }
+    @RunOnVirtualThread
+    public Uni<Response> getMicrofrontend(String id) {
+        var resultProductDTO = staleCache.get(GET_MICROFRONTEND, id, () -> {
+            try (Response response = client.getMicrofrontend(id)) {
+                Microfrontend resultMfe = response.readEntity(Microfrontend.class);
+                return mapper.mapMfe(resultMfe);
+            }
+        });
+        return Uni.createFrom().item(Response.status(Response.Status.OK).entity(resultProductDTO).build());
     }
 
     @Override
-    public Response searchMicrofrontends(MfeAndMsSearchCriteriaDTO microfrontendSearchCriteriaDTO) {
+    public Uni<Response> searchMicrofrontends(MfeAndMsSearchCriteriaDTO microfrontendSearchCriteriaDTO) {
 
-        try (Response response = client.searchMicrofrontends(mapper.mapMfeSearchCriteria(microfrontendSearchCriteriaDTO))) {
-            MicrofrontendPageResult searchPageResults = response.readEntity(MicrofrontendPageResult.class);
-            MicrofrontendPageResultDTO searchPageResultDTO = mapper.mapMfeSearchPageResponse(searchPageResults);
-            return Response.status(response.getStatus()).entity(searchPageResultDTO).build();
+        var criteria = mapper.mapMfeSearchCriteria(microfrontendSearchCriteriaDTO);
+        if (config.transcoding().enabled()) {
+            return client.searchMicrofrontends(criteria)
+                    .map(response -> Response.status(response.getStatus()).type(MediaType.APPLICATION_JSON)
+                            .entity(transcoder.transcode(response, MicrofrontendPageResultDTO.class)).build());
         }
+        return hedging.execute("searchMicrofrontends",
+                () -> client.searchMicrofrontends(criteria).map(response -> {
+                    try (response) {
+                        MicrofrontendPageResult searchPageResults = response.readEntity(MicrofrontendPageResult.class);
+                        return mapper.mapMfeSearchPageResponse(searchPageResults);
+                    }
+                })).map(searchPageResultDTO -> Response.status(Response.Status.OK).entity(searchPageResultDTO).build());
     }
 
     @Override
-    public Response updateMicrofrontend(String id, UpdateMicrofrontendRequestDTO updateMicrofrontendRequestDTO) {
+    @RunOnVirtualThread
+    public Uni<Response> updateMicrofrontend(String id, UpdateMicrofrontendRequestDTO updateMicrofrontendRequestDTO) {
 
         try (Response response = client.updateMicrofrontend(id, mapper.mapUpdateMfe(updateMicrofrontendRequestDTO))) {
-            return Response.status(response.getStatus()).build();
+            staleCache.invalidate(GET_MICROFRONTEND);
+            return Uni.createFrom().item(Response.status(response.getStatus()).build());
         } catch (WebApplicationException ex) {
-            return Response.status(ex.getResponse().getStatus())
-                    .entity(problemDetailMapper.map(ex.getResponse().readEntity(ProblemDetailResponse.class))).build();
+            return Uni.createFrom().item(problemDetailMapper.problemDetail(ex));
         }
     }
 
@@ -5,15 +5,19 @@ import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.resteasy.reactive.ClientWebApplicationException;
 import org.jboss.resteasy.reactive.RestResponse;
 import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
 import org.tkit.onecx.product.store.bff.rs.mappers.ExceptionMapper;
 import org.tkit.onecx.product.store.bff.rs.mappers.MicroservicesMapper;
 import org.tkit.onecx.product.store.bff.rs.mappers.ProblemDetailMapper;
+import org.tkit.onecx.product.store.bff.rs.services.Hedging;
+import org.tkit.onecx.product.store.bff.rs.services.JsonTranscoder;
 import org.tkit.quarkus.log.cdi.LogService;
 
 import gen.org.tkit.onecx.product.store.bff.rs.internal.MicroservicesApiService;
@@ -21,7 +25,7 @@ import gen.org.tkit.onecx.product.store.bff.rs.internal.model.*;
 import gen.org.tkit.onecx.product.store.client.api.MicroservicesInternalApi;
 import gen.org.tkit.onecx.product.store.client.model.Microservice;
 import gen.org.tkit.onecx.product.store.client.model.MicroservicePageResult;
-import gen.org.tkit.onecx.product.store.client.model.ProblemDetailResponse;
+import io.smallrye.mutiny.Uni;
 
 @LogService
 @ApplicationScoped
@@ -41,52 +45,74 @@ public class MicroservicesRestController implements MicroservicesApiService {
     @Inject
     ExceptionMapper exceptionMapper;
 
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    JsonTranscoder transcoder;
+
+    @Inject
+    Hedging hedging;
+
     @Override
-    public Response createMicroservice(CreateMicroserviceRequestDTO createMicroserviceRequestDTO) {
-
-        try (Response response = client.createMicroservice(mapper.mapCreateMs(createMicroserviceRequestDTO))) {
-            Microservice createdMs = response.readEntity(Microservice.class);
-            MicroserviceDTO createdMsDTO = mapper.map(createdMs);
-            return Response.status(response.getStatus()).entity(createdMsDTO).build();
-        } catch (WebApplicationException ex) {
-            return Response.status(ex.getResponse().getStatus())
-                    .entity(problemDetailMapper.map(ex.getResponse().readEntity(ProblemDetailResponse.class))).build();
-        }
+    public Uni<Response> createMicroservice(CreateMicroserviceRequestDTO createMicroserviceRequestDTO) {
+
+        return client.createMicroservice(mapper.mapCreateMs(createMicroserviceRequestDTO)).map(response -> {
+            try (response) {
+                Microservice createdMs = response.readEntity(Microservice.class);
+                MicroserviceDTO createdMsDTO = mapper.map(createdMs);
+                return Response.status(response.getStatus()).entity(createdMsDTO).build();
+            }
+        }).onFailure(WebApplicationException.class).recoverWithItem(this::problemDetail);
     }
 
     @Override
-    public Response deleteMicroservice(String id) {
-        try (Response response = client.deleteMicroservice(id)) {
-            return Response.status(response.getStatus()).build();
-        }
+    public Uni<Response> deleteMicroservice(String id) {
+        return client.deleteMicroservice(id).map(response -> {
+            try (response) {
+                return Response.status(response.getStatus()).build();
+            }
+        });
     }
 
     @Override
-    public Response getMicroservice(String id) {
-        try (Response response = client.getMicroservice(id)) {
-            Microservice resultMs = response.readEntity(Microservice.class);
-            MicroserviceDTO resultProductDTO = mapper.map(resultMs);
-            return Response.status(response.getStatus()).entity(resultProductDTO).build();
-        }
+    public Uni<Response> getMicroservice(String id) {
+        return hedging.execute("getMicroservice", () -> client.getMicroservice(id).map(response -> {
+            try (response) {
+                Microservice resultMs = response.readEntity(Microservice.class);
+                return mapper.map(resultMs);
+            }
+        })).map(resultProductDTO -> Response.status(Response.Status.OK).entity(resultProductDTO).build());
     }
 
     @Override
-    public Response searchMicroservice(MfeAndMsSearchCriteriaDTO microserviceSearchCriteriaDTO) {
-        try (Response response = client.searchMicroservice(mapper.mapMsSearchCriteria(microserviceSearchCriteriaDTO))) {
-            MicroservicePageResult searchPageResults = response.readEntity(MicroservicePageResult.class);
-            MicroservicePageResultDTO searchPageResultDTO = mapper.mapMsSearchPageResponse(searchPageResults);
-            return Response.status(response.getStatus()).entity(searchPageResultDTO).build();
+    public Uni<Response> searchMicroservice(MfeAndMsSearchCriteriaDTO microserviceSearchCriteriaDTO) {
+        var criteria = mapper.mapMsSearchCriteria(microserviceSearchCriteriaDTO);
+        if (config.transcoding().enabled()) {
+            return client.searchMicroservice(criteria)
+                    .map(response -> Response.status(response.getStatus()).type(MediaType.APPLICATION_JSON)
+                            .entity(transcoder.transcode(response, MicroservicePageResultDTO.class)).build());
         }
+        return hedging.execute("searchMicroservice",
+                () -> client.searchMicroservice(criteria).map(response -> {
+                    try (response) {
+                        MicroservicePageResult searchPageResults = response.readEntity(MicroservicePageResult.class);
+                        return mapper.mapMsSearchPageResponse(searchPageResults);
+                    }
+                })).map(searchPageResultDTO -> Response.status(Response.Status.OK).entity(searchPageResultDTO).build());
     }
 
     @Override
-    public Response updateMicroservice(String id, UpdateMicroserviceRequestDTO updateMicroserviceRequestDTO) {
-        try (Response response = client.updateMicroservice(id, mapper.mapUpdateMs(updateMicroserviceRequestDTO))) {
-            return Response.status(response.getStatus()).build();
-        } catch (WebApplicationException ex) {
-            return Response.status(ex.getResponse().getStatus())
-                    .entity(problemDetailMapper.map(ex.getResponse().readEntity(ProblemDetailResponse.class))).build();
-        }
+    public Uni<Response> updateMicroservice(String id, UpdateMicroserviceRequestDTO updateMicroserviceRequestDTO) {
+        return client.updateMicroservice(id, mapper.mapUpdateMs(updateMicroserviceRequestDTO)).map(response -> {
+            try (response) {
+                return Response.status(response.getStatus()).build();
+            }
+        }).onFailure(WebApplicationException.class).recoverWithItem(this::problemDetail);
+    }
+
+    private Response problemDetail(Throwable ex) {
+        return problemDetailMapper.problemDetail((WebApplicationException) ex);
     }
 
     @ServerExceptionMapper
@@ -1,19 +1,44 @@
 package org.tkit.onecx.product.store.bff.rs.controllers;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.resteasy.reactive.ClientWebApplicationException;
 import org.jboss.resteasy.reactive.RestResponse;
 import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
+import org.tkit.onecx.product.store.bff.rs.cache.ProductCache;
+import org.tkit.onecx.product.store.bff.rs.cache.SlotCache;
+import org.tkit.onecx.product.store.bff.rs.cache.StaleCache;
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
 import org.tkit.onecx.product.store.bff.rs.mappers.*;
+import org.tkit.onecx.product.store.bff.rs.services.ContextKeys;
+import org.tkit.onecx.product.store.bff.rs.services.Hedging;
+import org.tkit.onecx.product.store.bff.rs.services.JsonTranscoder;
+import org.tkit.onecx.product.store.bff.rs.services.SingleFlight;
 import org.tkit.quarkus.log.cdi.LogService;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import gen.org.tkit.onecx.product.store.bff.rs.internal.ProductsApiService;
 import gen.org.tkit.onecx.product.store.bff.rs.internal.model.*;
 import gen.org.tkit.onecx.product.store.client.api.MicrofrontendsInternalApi;
@@ -21,12 +46,21 @@ import gen.org.tkit.onecx.product.store.client.api.MicroservicesInternalApi;
 import gen.org.tkit.onecx.product.store.client.api.ProductsInternalApi;
 import gen.org.tkit.onecx.product.store.client.api.SlotsInternalApi;
 import gen.org.tkit.onecx.product.store.client.model.*;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheException;
+import io.quarkus.cache.CacheName;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 
 @LogService
 @ApplicationScoped
+@RunOnVirtualThread
 @Transactional(value = Transactional.TxType.NOT_SUPPORTED)
 public class ProductsRestController implements ProductsApiService {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     @RestClient
     @Inject
     ProductsInternalApi client;
@@ -55,6 +89,37 @@ public class ProductsRestController implements ProductsApiService {
     @Inject
     SlotsMapper slotMapper;
 
+    @Inject
+    ManagedExecutor executor;
+
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    @CacheName("onecx-product-criteria")
+    Cache criteriaCache;
+
+    @Inject
+    SingleFlight singleFlight;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    JsonTranscoder transcoder;
+
+    @Inject
+    ProductCache productCache;
+
+    @Inject
+    SlotCache slotCache;
+
+    @Inject
+    Hedging hedging;
+
+    @Inject
+    StaleCache staleCache;
+
     private final ProblemDetailMapper problemDetailMapper;
 
     private final ExceptionMapper exceptionMapper;
@@ -69,97 +134,299 @@ public class ProductsRestController implements ProductsApiService {
     }
 
     @Override
-    public Response createProduct(CreateProductRequestDTO createProductRequestDTO) {
+    public Uni<Response> createProduct(CreateProductRequestDTO createProductRequestDTO) {
 
         try (Response response = client.createProduct(mapper.mapCreateProduct(createProductRequestDTO))) {
+            invalidateSearchCriteria();
             Product createdProduct = response.readEntity(Product.class);
             ProductDTO createdProductDTO = mapper.mapProduct(createdProduct);
-            return Response.status(response.getStatus()).entity(createdProductDTO).build();
+            return Uni.createFrom().item(Response.status(response.getStatus()).entity(createdProductDTO).build());
         } catch (WebApplicationException ex) {
-            return Response.status(ex.getResponse().getStatus())
-                    .entity(problemDetailMapper.map(ex.getResponse().readEntity(ProblemDetailResponse.class))).build();
+            return Uni.createFrom().item(problemDetailMapper.problemDetail(ex));
         }
     }
 
     @Override
-    public Response deleteProduct(String id) {
+    public Uni<Response> deleteProduct(String id) {
         try (Response response = client.deleteProduct(id)) {
-            return Response.status(response.getStatus()).build();
+            invalidateSearchCriteria();
+            return Uni.createFrom().item(Response.status(response.getStatus()).build());
         }
     }
 
     @Override
-    public Response getProduct(String id) {
+    public Uni<Response> getProduct(String id) {
+        // stale responses are served around the product cache so that they never enter it
+        var tenant = ContextKeys.tenant();
+        var resultProductDTO = staleCache.get("getProduct", id,
+                () -> productCache.get(tenant, "getProduct", id, ProductDTO.class,
+                        () -> hedging.execute("getProduct", () -> client.getProduct(id).map(response -> {
+                            try (response) {
+                                Product resultProduct = response.readEntity(Product.class);
+                                return mapper.mapProduct(resultProduct);
+                            }
+                        })).await().indefinitely()));
+        return Uni.createFrom().item(Response.status(Response.Status.OK).entity(resultProductDTO).build());
+    }
 
-        try (Response response = client.getProduct(id)) {
-            Product resultProduct = response.readEntity(Product.class);
-            ProductDTO resultProductDTO = mapper.mapProduct(resultProduct);
-            return Response.status(response.getStatus()).entity(resultProductDTO).build();
-        }
+    @Override
+    public Uni<Response> getProductByName(String name) {
+        return Uni.createFrom()
+                .item(Response.status(Response.Status.OK).entity(loadProductByName(ContextKeys.scope(), name)).build());
+    }
+
+    private ProductDTO loadProductByName(ContextKeys.Scope scope, String name) {
+        return productCache.get(scope.tenant(), "getProductByName", name, ProductDTO.class,
+                () -> singleFlight.execute(scope, "getProductByName", () -> {
+                    try (Response response = client.getProductByName(name)) {
+                        return mapper.mapProduct(response.readEntity(Product.class));
+                    }
+                }, name));
     }
 
     @Override
-    public Response getProductByName(String name) {
-        try (Response response = client.getProductByName(name)) {
-            Product resultProduct = response.readEntity(Product.class);
-            ProductDTO resultProductDTO = mapper.mapProduct(resultProduct);
-            return Response.status(response.getStatus()).entity(resultProductDTO).build();
+    public Uni<Response> getProductsByNames(ProductNamesRequestDTO productNamesRequestDTO) {
+        var names = new LinkedHashSet<>(productNamesRequestDTO.getNames());
+        var maxNames = config.batch().maxNames();
+        if (names.size() > maxNames) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(exceptionMapper.exception("BATCH_TOO_LARGE",
+                            "Number of names must be less than or equal to " + maxNames))
+                    .build());
+        }
+
+        // the names are loaded on the executor threads which do not have the application context
+        var scope = ContextKeys.scope();
+        var items = Multi.createFrom().iterable(names)
+                .onItem().transformToUni(name -> Uni.createFrom().item(() -> productByName(scope, name))
+                        .runSubscriptionOn(executor)
+                        .map(item -> Map.entry(name, item)))
+                .merge(config.batch().parallelism())
+                .collect().asMap(Map.Entry::getKey, Map.Entry::getValue)
+                .await().indefinitely();
+
+        // keep the order of the request
+        Map<String, ProductNamesItemDTO> products = new LinkedHashMap<>();
+        names.forEach(name -> products.put(name, items.get(name)));
+        return Uni.createFrom()
+                .item(Response.status(Response.Status.OK).entity(new ProductNamesResultDTO().products(products)).build());
+    }
+
+    private ProductNamesItemDTO productByName(ContextKeys.Scope scope, String name) {
+        try {
+            return new ProductNamesItemDTO().found(true).product(loadProductByName(scope, name));
+        } catch (WebApplicationException ex) {
+            if (ex.getResponse().getStatus() == Response.Status.NOT_FOUND.getStatusCode()) {
+                return new ProductNamesItemDTO().found(false);
+            }
+            throw ex;
         }
     }
 
     @Override
-    public Response getProductDetailsByCriteria(ProductDetailsCriteriaDTO productSearchCriteriaDTO) {
+    public Uni<Response> getProductDetailsByCriteria(ProductDetailsCriteriaDTO productSearchCriteriaDTO) {
+        var detailsDTO = singleFlight.execute("getProductDetailsByCriteria",
+                () -> loadProductDetails(productSearchCriteriaDTO), productSearchCriteriaDTO);
+        return Uni.createFrom().item(Response.status(Response.Status.OK).entity(detailsDTO).build());
+    }
+
+    private ProductDetailsDTO loadProductDetails(ProductDetailsCriteriaDTO productSearchCriteriaDTO) {
+        Queue<ProblemDetailResponseDTO> problems = new ConcurrentLinkedQueue<>();
+
+        var mfeCriteria = mapper.map(productSearchCriteriaDTO);
+        var mfes = detailsSection("MICROFRONTENDS", problems, hedging.execute("searchMicrofrontends",
+                () -> mfeClient.searchMicrofrontends(mfeCriteria).map(mfeResponse -> {
+                    try (mfeResponse) {
+                        return mfeMapper.map(mfeResponse.readEntity(MicrofrontendPageResult.class));
+                    }
+                })));
+        var msCriteria = mapper.mapMsCriteria(productSearchCriteriaDTO);
+        var mss = detailsSection("MICROSERVICES", problems, hedging.execute("searchMicroservice",
+                () -> msClient.searchMicroservice(msCriteria).map(msResponse -> {
+                    try (msResponse) {
+                        return msMapper.map(msResponse.readEntity(MicroservicePageResult.class));
+                    }
+                })));
+        var slotCriteria = mapper.mapSlotCriteria(productSearchCriteriaDTO);
+        var slots = detailsSection("SLOTS", problems,
+                slotCache.get(slotCriteria, () -> hedging.execute("searchSlots",
+                        () -> slotClient.searchSlots(slotCriteria).map(slotResponse -> {
+                            try (slotResponse) {
+                                return slotResponse.readEntity(SlotPageResult.class);
+                            }
+                        }))).map(slotMapper::mapToList));
+
+        var sections = Uni.combine().all().unis(mfes, mss, slots).asTuple().await().indefinitely();
+
         ProductDetailsDTO detailsDTO = new ProductDetailsDTO();
         detailsDTO.setName(productSearchCriteriaDTO.getName());
-        try (Response mfeResponse = mfeClient.searchMicrofrontends(mapper.map(productSearchCriteriaDTO))) {
-            detailsDTO.setMicrofrontends(mfeMapper.map(mfeResponse.readEntity(MicrofrontendPageResult.class)));
+        detailsDTO.setMicrofrontends(sections.getItem1());
+        detailsDTO.setMicroservices(sections.getItem2());
+        detailsDTO.setSlots(sections.getItem3());
+        if (!problems.isEmpty()) {
+            detailsDTO.setProblems(new ArrayList<>(problems));
         }
+        return detailsDTO;
+    }
 
-        try (Response msResponse = msClient.searchMicroservice(mapper.mapMsCriteria(productSearchCriteriaDTO))) {
-            detailsDTO.setMicroservices(msMapper.map(msResponse.readEntity(MicroservicePageResult.class)));
+    /**
+     * Wraps one downstream search of the product details. All sections are subscribed concurrently,
+     * the request thread waits for the slowest one only. In partial failure mode a failed section is
+     * returned as {@code null} and reported as problem detail.
+     */
+    private <T> Uni<T> detailsSection(String section, Queue<ProblemDetailResponseDTO> problems, Uni<T> search) {
+        if (config.details().failureMode() == ProductStoreConfig.FailureMode.PARTIAL) {
+            return search.onFailure().recoverWithItem(ex -> {
+                problems.add(exceptionMapper.exception(section + "_SEARCH_FAILED", ex.getMessage()));
+                return null;
+            });
         }
+        return search;
+    }
 
-        try (Response slotResponse = slotClient.searchSlots(mapper.mapSlotCriteria(productSearchCriteriaDTO))) {
-            detailsDTO.setSlots(slotMapper.mapToList(slotResponse.readEntity(SlotPageResult.class)));
+    @Override
+    public Uni<Response> getProductSearchCriteria() {
+        var tenant = ContextKeys.tenant();
+        if (tenant == null) {
+            return Uni.createFrom().item(Response.status(Response.Status.OK).entity(loadSearchCriteria()).build());
+        }
+        try {
+            var criteria = criteriaCache.get(tenant, t -> loadSearchCriteria()).await().indefinitely();
+            return Uni.createFrom().item(Response.status(Response.Status.OK).entity(criteria).build());
+        } catch (CacheException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
         }
-
-        return Response.status(Response.Status.OK).entity(detailsDTO).build();
     }
 
-    @Override
-    public Response getProductSearchCriteria() {
+    private ProductCriteriaDTO loadSearchCriteria() {
         try (Response response = client.getProductSearchCriteria()) {
-            return Response.status(response.getStatus())
-                    .entity(mapper.mapCriteriaLists(response.readEntity(ProductCriteria.class))).build();
+            return mapper.mapCriteriaLists(response.readEntity(ProductCriteria.class));
+        }
+    }
+
+    /**
+     * The search criteria are computed from all products of the tenant, any product change invalidates them
+     * together with the cached product reads of the tenant. Requests without tenant do not cache them.
+     */
+    private void invalidateSearchCriteria() {
+        var tenant = ContextKeys.tenant();
+        if (tenant != null) {
+            criteriaCache.invalidate(tenant).await().indefinitely();
         }
+        productCache.invalidate();
+        staleCache.invalidate("getProduct", "searchProducts");
     }
 
     @Override
-    public Response loadProductsByCriteria(ProductLoadSearchCriteriaDTO productLoadSearchCriteriaDTO) {
+    public Uni<Response> loadProductsByCriteria(ProductLoadSearchCriteriaDTO productLoadSearchCriteriaDTO) {
         try (Response response = client.loadProductsByCriteria(mapper.mapLoadCriteria(productLoadSearchCriteriaDTO))) {
-            return Response.status(response.getStatus())
-                    .entity(mapper.mapLoadResult(response.readEntity(ProductsLoadResult.class))).build();
+            return Uni.createFrom().item(Response.status(response.getStatus())
+                    .entity(mapper.mapLoadResult(response.readEntity(ProductsLoadResult.class))).build());
+        }
+    }
+
+    @Override
+    public Uni<Response> streamProductsByCriteria(ProductLoadSearchCriteriaDTO productLoadSearchCriteriaDTO) {
+        var criteria = productLoadSearchCriteriaDTO != null ? productLoadSearchCriteriaDTO
+                : new ProductLoadSearchCriteriaDTO();
+        var startPage = criteria.getPageNumber() != null ? criteria.getPageNumber() : 0;
+
+        // load the first page before the response is committed, so that errors are mapped as usual
+        var firstPage = loadProductsPage(criteria, startPage);
+        StreamingOutput output = out -> writeProductPages(out, criteria, startPage, firstPage);
+        return Uni.createFrom().item(Response.ok(output, NDJSON).build());
+    }
+
+    /**
+     * Writes all product pages, one product per line. The next page is loaded while the current
+     * page is written, so at most two pages are held in memory.
+     */
+    private void writeProductPages(OutputStream out, ProductLoadSearchCriteriaDTO criteria, int startPage,
+            ProductsLoadResult firstPage) throws IOException {
+        try (var generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            var page = firstPage;
+            var pageNumber = startPage;
+            while (page != null) {
+                CompletableFuture<ProductsLoadResult> next = null;
+                if (hasNextPage(page, pageNumber)) {
+                    var nextPageNumber = pageNumber + 1;
+                    next = executor.supplyAsync(() -> loadProductsPage(criteria, nextPageNumber));
+                }
+                try {
+                    for (LoadProduct product : page.getStream()) {
+                        objectMapper.writeValue(generator, mapper.map(product));
+                        generator.writeRaw('\n');
+                    }
+                    generator.flush();
+                } catch (IOException | RuntimeException ex) {
+                    if (next != null) {
+                        next.cancel(true);
+                    }
+                    throw ex;
+                }
+                page = next != null ? awaitPage(next) : null;
+                pageNumber++;
+            }
+        }
+    }
+
+    private ProductsLoadResult loadProductsPage(ProductLoadSearchCriteriaDTO criteria, int pageNumber) {
+        var pageCriteria = mapper.mapLoadCriteria(criteria);
+        pageCriteria.setPageNumber(pageNumber);
+        try (Response response = client.loadProductsByCriteria(pageCriteria)) {
+            return response.readEntity(ProductsLoadResult.class);
+        }
+    }
+
+    private static boolean hasNextPage(ProductsLoadResult page, int pageNumber) {
+        if (page.getStream() == null || page.getStream().isEmpty()) {
+            return false;
+        }
+        return page.getTotalPages() != null && pageNumber + 1 < page.getTotalPages();
+    }
+
+    private static ProductsLoadResult awaitPage(CompletableFuture<ProductsLoadResult> page) throws IOException {
+        try {
+            return page.join();
+        } catch (CompletionException ex) {
+            throw new IOException("Loading of the next products page failed", ex.getCause());
         }
     }
 
     @Override
-    public Response searchProducts(ProductSearchCriteriaDTO productSearchCriteriaDTO) {
+    public Uni<Response> searchProducts(ProductSearchCriteriaDTO productSearchCriteriaDTO) {
 
-        try (Response response = client.searchProducts(mapper.mapProductSearchCriteria(productSearchCriteriaDTO))) {
-            ProductPageResult searchPageResults = response.readEntity(ProductPageResult.class);
-            ProductPageResultDTO searchPageResultDTO = mapper.mapProductSearchPageResponse(searchPageResults);
-            return Response.status(response.getStatus()).entity(searchPageResultDTO).build();
+        if (config.transcoding().enabled()) {
+            return client.searchProducts(mapper.mapProductSearchCriteria(productSearchCriteriaDTO))
+                    .map(response -> Response.status(response.getStatus()).type(MediaType.APPLICATION_JSON)
+                            .entity(transcoder.transcode(response, ProductPageResultDTO.class)).build());
         }
+        var criteria = mapper.mapProductSearchCriteria(productSearchCriteriaDTO);
+        var tenant = ContextKeys.tenant();
+        var searchPageResultDTO = staleCache.get("searchProducts", productSearchCriteriaDTO,
+                () -> productCache.get(tenant, "searchProducts", productSearchCriteriaDTO, ProductPageResultDTO.class,
+                        () -> hedging.execute("searchProducts", () -> client.searchProducts(criteria).map(response -> {
+                            try (response) {
+                                ProductPageResult searchPageResults = response.readEntity(ProductPageResult.class);
+                                return mapper.mapProductSearchPageResponse(searchPageResults);
+                            }
+                        })).await().indefinitely()));
+        return Uni.createFrom().item(Response.status(Response.Status.OK).entity(searchPageResultDTO).build());
     }
 
     @Override
-    public Response updateProduct(String id, UpdateProductRequestDTO updateProductRequestDTO) {
+    public Uni<Response> updateProduct(String id, UpdateProductRequestDTO updateProductRequestDTO) {
 
         try (Response response = client.updateProduct(id, mapper.mapUpdateProduct(updateProductRequestDTO))) {
-            return Response.status(response.getStatus()).entity(mapper.mapProduct(response.readEntity(Product.class))).build();
+            invalidateSearchCriteria();
+            return Uni.createFrom().item(Response.status(response.getStatus())
+                    .entity(mapper.mapProduct(response.readEntity(Product.class))).build());
         } catch (WebApplicationException ex) {
-            return Response.status(ex.getResponse().getStatus())
-                    .entity(problemDetailMapper.map(ex.getResponse().readEntity(ProblemDetailResponse.class))).build();
+            return Uni.createFrom().item(problemDetailMapper.problemDetail(ex));
         }
     }
 
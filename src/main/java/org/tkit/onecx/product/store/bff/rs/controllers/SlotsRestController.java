@@ -1,33 +1,48 @@
 package org.tkit.onecx.product.store.bff.rs.controllers;
 
+import java.util.Objects;
+
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ConstraintViolationException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.resteasy.reactive.ClientWebApplicationException;
 import org.jboss.resteasy.reactive.RestResponse;
 import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
+import org.tkit.onecx.product.store.bff.rs.cache.SlotCache;
+import org.tkit.onecx.product.store.bff.rs.cache.StaleCache;
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
 import org.tkit.onecx.product.store.bff.rs.mappers.ExceptionMapper;
 import org.tkit.onecx.product.store.bff.rs.mappers.SlotsMapper;
+import org.tkit.onecx.product.store.bff.rs.services.ContextKeys;
+import org.tkit.onecx.product.store.bff.rs.services.Hedging;
+import org.tkit.onecx.product.store.bff.rs.services.JsonTranscoder;
 import org.tkit.quarkus.log.cdi.LogService;
 
 import gen.org.tkit.onecx.product.store.bff.rs.internal.SlotsApiService;
 import gen.org.tkit.onecx.product.store.bff.rs.internal.model.CreateSlotRequestDTO;
 import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProblemDetailResponseDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.SlotPageResultDTO;
 import gen.org.tkit.onecx.product.store.bff.rs.internal.model.SlotSearchCriteriaDTO;
 import gen.org.tkit.onecx.product.store.bff.rs.internal.model.UpdateSlotRequestDTO;
 import gen.org.tkit.onecx.product.store.client.api.SlotsInternalApi;
 import gen.org.tkit.onecx.product.store.client.model.Slot;
 import gen.org.tkit.onecx.product.store.client.model.SlotPageResult;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.mutiny.Uni;
 
 @LogService
 @ApplicationScoped
 @Transactional(value = Transactional.TxType.NOT_SUPPORTED)
 public class SlotsRestController implements SlotsApiService {
 
+    private static final String GET_SLOT = "getSlot";
+
     @Inject
     @RestClient
     SlotsInternalApi slotsClient;
@@ -38,39 +53,98 @@ public class SlotsRestController implements SlotsApiService {
     @Inject
     ExceptionMapper exceptionMapper;
 
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    JsonTranscoder transcoder;
+
+    @Inject
+    SlotCache slotCache;
+
+    @Inject
+    Hedging hedging;
+
+    @Inject
+    StaleCache staleCache;
+
     @Override
-    public Response createSlot(CreateSlotRequestDTO createSlotRequestDTO) {
+    @RunOnVirtualThread
+    public Uni<Response> createSlot(CreateSlotRequestDTO createSlotRequestDTO) {
         try (Response response = slotsClient.createSlot(slotsMapper.map(createSlotRequestDTO))) {
-            return Response.status(response.getStatus()).entity(slotsMapper.map(response.readEntity(Slot.class))).build();
+            slotCache.invalidate(createSlotRequestDTO.getProductName());
+            staleCache.invalidate(GET_SLOT);
+            return Uni.createFrom()
+                    .item(Response.status(response.getStatus()).entity(slotsMapper.map(response.readEntity(Slot.class))).build());
         }
     }
 
     @Override
-    public Response deleteSlot(String id) {
+    @RunOnVirtualThread
+    public Uni<Response> deleteSlot(String id) {
+        var productName = slotProductName(id);
         try (Response response = slotsClient.deleteSlot(id)) {
-            return Response.status(response.getStatus()).build();
+            slotCache.invalidate(productName);
+            staleCache.invalidate(GET_SLOT);
+            return Uni.createFrom().item(Response.status(response.getStatus()).build());
         }
     }
 
     @Override
-    public Response getSlot(String id) {
-        try (Response response = slotsClient.getSlot(id)) {
-            return Response.status(response.getStatus()).entity(slotsMapper.map(response.readEntity(Slot.class))).build();
-        }
+    @RunOnVirtualThread
+    public Uni<Response> getSlot(String id) {
+        var slot = staleCache.get(GET_SLOT, id,
+                () -> hedging.execute("getSlot", () -> slotsClient.getSlot(id).map(response -> {
+                    try (response) {
+                        return slotsMapper.map(response.readEntity(Slot.class));
+                    }
+                })).await().indefinitely());
+        return Uni.createFrom().item(Response.status(Response.Status.OK).entity(slot).build());
     }
 
     @Override
-    public Response searchSlots(SlotSearchCriteriaDTO slotSearchCriteriaDTO) {
-        try (Response response = slotsClient.searchSlots(slotsMapper.map(slotSearchCriteriaDTO))) {
-            return Response.status(response.getStatus()).entity(slotsMapper.map(response.readEntity(SlotPageResult.class)))
-                    .build();
+    public Uni<Response> searchSlots(SlotSearchCriteriaDTO slotSearchCriteriaDTO) {
+        var criteria = slotsMapper.map(slotSearchCriteriaDTO);
+        if (config.transcoding().enabled()) {
+            return slotsClient.searchSlots(criteria)
+                    .map(response -> Response.status(response.getStatus()).type(MediaType.APPLICATION_JSON)
+                            .entity(transcoder.transcode(response, SlotPageResultDTO.class)).build());
         }
+        return slotCache.get(criteria, () -> hedging.execute("searchSlots",
+                () -> slotsClient.searchSlots(criteria).map(response -> {
+                    try (response) {
+                        return response.readEntity(SlotPageResult.class);
+                    }
+                }))).map(result -> Response.status(Response.Status.OK).entity(slotsMapper.map(result)).build());
     }
 
     @Override
-    public Response updateSlot(String id, UpdateSlotRequestDTO updateSlotRequestDTO) {
+    @RunOnVirtualThread
+    public Uni<Response> updateSlot(String id, UpdateSlotRequestDTO updateSlotRequestDTO) {
+        var productName = slotProductName(id);
         try (Response response = slotsClient.updateSlot(id, slotsMapper.map(updateSlotRequestDTO))) {
-            return Response.status(response.getStatus()).build();
+            slotCache.invalidate(productName);
+            staleCache.invalidate(GET_SLOT);
+            if (!Objects.equals(productName, updateSlotRequestDTO.getProductName())) {
+                slotCache.invalidate(updateSlotRequestDTO.getProductName());
+            }
+            return Uni.createFrom().item(Response.status(response.getStatus()).build());
+        }
+    }
+
+    /**
+     * Returns the product name of the stored slot whose cached search results have to be invalidated
+     * on change, {@code null} invalidates all slot search results of the tenant. Requests without
+     * tenant are not cached and skip the lookup.
+     */
+    private String slotProductName(String id) {
+        if (!config.slots().cache().enabled() || ContextKeys.tenant() == null) {
+            return null;
+        }
+        try (Response response = slotsClient.getSlot(id).await().indefinitely()) {
+            return response.readEntity(Slot.class).getProductName();
+        } catch (WebApplicationException _) {
+            return null;
         }
     }
 
@@ -0,0 +1,99 @@
+package org.tkit.onecx.product.store.bff.rs.limiter;
+
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+
+import org.jboss.resteasy.reactive.client.spi.ResteasyReactiveClientRequestContext;
+import org.jboss.resteasy.reactive.client.spi.ResteasyReactiveClientRequestFilter;
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
+import org.tkit.onecx.product.store.bff.rs.mappers.ExceptionMapper;
+import org.tkit.onecx.product.store.bff.rs.metrics.ClientMetricsFilter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Admits the downstream calls of the product store and image clients within the concurrency limit
+ * of the client, identified by its config key. The permit is held until the downstream response,
+ * server errors and failed connections of the client decrease the limit. Calls above the limit are
+ * aborted with status 503 and {@code Retry-After}, which the controllers pass on to the caller.
+ */
+@Provider
+@Priority(Priorities.USER + 2000)
+public class ConcurrencyLimitFilter implements ResteasyReactiveClientRequestFilter {
+
+    static final String INVOKED_METHOD = "org.eclipse.microprofile.rest.client.invokedMethod";
+
+    static final Set<String> CLIENTS = Set.of("onecx_product_store_internal", "onecx_image_internal");
+
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    ConcurrencyLimiter limiter;
+
+    @Inject
+    ExceptionMapper exceptionMapper;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Override
+    public void filter(ResteasyReactiveClientRequestContext requestContext) {
+        if (!config.limiter().enabled()
+                || !(requestContext.getProperty(INVOKED_METHOD) instanceof Method method)) {
+            return;
+        }
+        var client = ClientMetricsFilter.client(method);
+        if (client == null || !CLIENTS.contains(client)) {
+            return;
+        }
+        var permit = limiter.tryAcquire(client);
+        if (permit == null) {
+            requestContext.abortWith(overloaded(client));
+            return;
+        }
+        requestContext.getRestClientRequestContext().getResult()
+                .whenComplete((response, ex) -> permit.release(failed(response, ex)));
+    }
+
+    /**
+     * Returns {@code true} for server errors of the downstream service and calls without response,
+     * calls cancelled by the caller do not count as failed.
+     */
+    static boolean failed(Response result, Throwable ex) {
+        var response = result;
+        if (response == null && ex instanceof WebApplicationException wae) {
+            response = wae.getResponse();
+        }
+        if (response != null) {
+            return response.getStatus() >= Response.Status.INTERNAL_SERVER_ERROR.getStatusCode();
+        }
+        return ex != null && !(ex instanceof CancellationException);
+    }
+
+    private Response overloaded(String client) {
+        try {
+            var body = objectMapper.writeValueAsBytes(exceptionMapper.overloaded(client));
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, Math.max(1, config.limiter().retryAfter().toSeconds()))
+                    .entity(new ByteArrayInputStream(body))
+                    .type(APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
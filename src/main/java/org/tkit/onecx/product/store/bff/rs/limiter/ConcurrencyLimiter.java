@@ -0,0 +1,152 @@
+package org.tkit.onecx.product.store.bff.rs.limiter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Adaptive (AIMD) concurrency limits of the requests per downstream client. The limit is increased
+ * by one for fast requests which used at least half of the limit, and decreased by the backoff
+ * ratio for slow or failed requests.
+ */
+@ApplicationScoped
+public class ConcurrencyLimiter {
+
+    static final String METRIC_PREFIX = "onecx.product-store.limiter.";
+
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+
+    /**
+     * Acquires a permit of the client.
+     *
+     * @param client config key of the downstream client
+     * @return the permit or {@code null} if the limit is reached
+     */
+    public Permit tryAcquire(String client) {
+        var limit = limits.computeIfAbsent(client, this::register);
+        var inFlight = limit.tryAcquire();
+        if (inFlight < 0) {
+            limit.rejected().increment();
+            return null;
+        }
+        return new Permit(limit, inFlight, System.nanoTime());
+    }
+
+    private Limit register(String client) {
+        var limiter = config.limiter();
+        var limit = new Limit(limiter, Counter.builder(METRIC_PREFIX + "rejected")
+                .description("Requests rejected by the concurrency limit")
+                .tag("client", client)
+                .register(registry));
+        Gauge.builder(METRIC_PREFIX + "limit", limit, Limit::limit)
+                .description("Current concurrency limit of the downstream client")
+                .tag("client", client)
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + "in-flight", limit, l -> l.inFlight().get())
+                .description("Requests of the downstream client in flight")
+                .tag("client", client)
+                .register(registry);
+        return limit;
+    }
+
+    /**
+     * Permit of one request, it has to be released exactly once.
+     */
+    public static final class Permit {
+
+        private final Limit limit;
+
+        private final int inFlight;
+
+        private final long start;
+
+        private boolean released;
+
+        Permit(Limit limit, int inFlight, long start) {
+            this.limit = limit;
+            this.inFlight = inFlight;
+            this.start = start;
+        }
+
+        /**
+         * Releases the permit and adapts the limit.
+         *
+         * @param failed {@code true} if the downstream call failed with a server error or without response
+         */
+        public synchronized void release(boolean failed) {
+            if (released) {
+                return;
+            }
+            released = true;
+            limit.release(inFlight, System.nanoTime() - start, failed);
+        }
+    }
+
+    static final class Limit {
+
+        private final ProductStoreConfig.LimiterConfig config;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final Counter rejected;
+
+        private volatile double limit;
+
+        Limit(ProductStoreConfig.LimiterConfig config, Counter rejected) {
+            this.config = config;
+            this.rejected = rejected;
+            this.limit = config.initialLimit();
+        }
+
+        /**
+         * Returns the requests in flight including the new one, or {@code -1} if the limit is reached.
+         */
+        int tryAcquire() {
+            while (true) {
+                var current = inFlight.get();
+                if (current >= (int) limit) {
+                    return -1;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return current + 1;
+                }
+            }
+        }
+
+        synchronized void release(int acquiredInFlight, long nanos, boolean failed) {
+            inFlight.decrementAndGet();
+            if (failed || nanos > config.latencyThreshold().toNanos()) {
+                limit = Math.max(config.minLimit(), limit * config.backoffRatio());
+            } else if (acquiredInFlight * 2 >= limit) {
+                limit = Math.min(config.maxLimit(), limit + 1);
+            }
+        }
+
+        double limit() {
+            return limit;
+        }
+
+        AtomicInteger inFlight() {
+            return inFlight;
+        }
+
+        Counter rejected() {
+            return rejected;
+        }
+    }
+}
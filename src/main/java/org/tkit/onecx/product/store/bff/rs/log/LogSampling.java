@@ -0,0 +1,21 @@
+package org.tkit.onecx.product.store.bff.rs.log;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * Sampling decision of the parameter logging of the current request. The decision is taken once
+ * per request by {@link LogSamplingFilter}, so all parameters and all log lines of the request agree.
+ */
+@RequestScoped
+public class LogSampling {
+
+    private boolean sampled = true;
+
+    void sampled(boolean sampled) {
+        this.sampled = sampled;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+}
@@ -0,0 +1,37 @@
+package org.tkit.onecx.product.store.bff.rs.log;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
+
+/**
+ * Samples the parameter logging of the read endpoints, the {@code GET} requests and the searches,
+ * with the read sample rate. All other requests log their parameters.
+ */
+public class LogSamplingFilter {
+
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    LogSampling sampling;
+
+    @ServerRequestFilter
+    public void sample(ContainerRequestContext requestContext) {
+        if (!isRead(requestContext)) {
+            return;
+        }
+        var rate = config.log().readSampleRate();
+        sampling.sampled(rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private static boolean isRead(ContainerRequestContext requestContext) {
+        return HttpMethod.GET.equals(requestContext.getMethod())
+                || requestContext.getUriInfo().getPath().endsWith("/search");
+    }
+}
@@ -1,16 +1,24 @@
 package org.tkit.onecx.product.store.bff.rs.log;
 
 import java.util.List;
+import java.util.function.Function;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 
 import org.tkit.quarkus.log.cdi.LogParam;
 
 import gen.org.tkit.onecx.product.store.bff.rs.internal.model.*;
+import io.quarkus.arc.Arc;
 
 @ApplicationScoped
 public class ProductStoreLog implements LogParam {
 
+    private static final String NOT_SAMPLED = "...";
+
+    @Inject
+    LogSampling sampling;
+
     @Override
     public List<LogParam.Item> getClasses() {
 
@@ -24,17 +32,29 @@ public class ProductStoreLog implements LogParam {
                                 ((UpdateMicrofrontendRequestDTO) x).getAppId()
                                 + "]"),
                 this.item(10, MfeAndMsSearchCriteriaDTO.class,
-                        x -> "MicrofrontendSearchCriteriaDTO[appId:" +
+                        sampled("MicrofrontendSearchCriteriaDTO[...]", x -> "MicrofrontendSearchCriteriaDTO[appId:" +
                                 ((MfeAndMsSearchCriteriaDTO) x).getAppName()
-                                + "]"),
+                                + "]")),
                 this.item(10, CreateProductRequestDTO.class,
                         x -> "CreateProductRequestDTO[name:" +
                                 ((CreateProductRequestDTO) x).getName() + "]"),
                 this.item(10, UpdateProductRequestDTO.class,
                         x -> "UpdateProductRequestDTO[name:" + ((UpdateProductRequestDTO) x).getName() + "]"),
                 this.item(10, ProductSearchCriteriaDTO.class,
-                        x -> "ProductSearchCriteriaDTO[name:" + ((ProductSearchCriteriaDTO) x).getNames()
-                                + "]"));
+                        sampled("ProductSearchCriteriaDTO[...]", x -> "ProductSearchCriteriaDTO[name:"
+                                + ((ProductSearchCriteriaDTO) x).getNames()
+                                + "]")),
+                this.item(10, String.class, sampled(NOT_SAMPLED, String.class::cast)),
+                this.item(10, Integer.class, sampled(NOT_SAMPLED, Object::toString)),
+                this.item(10, RefTypeDTO.class, sampled(NOT_SAMPLED, Object::toString)));
     }
 
+    /**
+     * Renders the parameters of read endpoints, including the scalar path and query parameters, only
+     * for sampled requests. All other requests log the constant summary without creating a string.
+     * Parameters logged outside a request are always rendered.
+     */
+    private Function<Object, String> sampled(String summary, Function<Object, String> render) {
+        return x -> !Arc.container().requestContext().isActive() || sampling.isSampled() ? render.apply(x) : summary;
+    }
 }
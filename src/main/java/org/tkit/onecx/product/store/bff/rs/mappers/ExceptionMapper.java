@@ -9,6 +9,7 @@ import java.util.Set;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Path;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 
 import org.jboss.resteasy.reactive.ClientWebApplicationException;
@@ -37,16 +38,22 @@ public interface ExceptionMapper {
         } else if (ex.getResponse().getStatus() == Response.Status.NOT_FOUND.getStatusCode()) {
             return Response.status(Response.Status.NOT_FOUND).build();
         } else {
+            var response = Response.status(ex.getResponse().getStatus())
+                    .header(HttpHeaders.RETRY_AFTER, ex.getResponse().getHeaderString(HttpHeaders.RETRY_AFTER));
             if (ex.getResponse().getMediaType() != null
                     && ex.getResponse().getMediaType().toString().contains(APPLICATION_JSON)) {
-                return Response.status(ex.getResponse().getStatus())
-                        .entity(map(ex.getResponse().readEntity(ProblemDetailResponse.class))).build();
+                return response.entity(map(ex.getResponse().readEntity(ProblemDetailResponse.class))).build();
             } else {
-                return Response.status(ex.getResponse().getStatus()).build();
+                return response.build();
             }
         }
     }
 
+    default ProblemDetailResponseDTO overloaded(String client) {
+        return exception("SERVICE_OVERLOADED",
+                "Concurrency limit of the downstream client " + client + " reached, retry later");
+    }
+
     @Mapping(target = "removeParamsItem", ignore = true)
     @Mapping(target = "removeInvalidParamsItem", ignore = true)
     ProblemDetailResponseDTO map(ProblemDetailResponse problemDetailResponse);
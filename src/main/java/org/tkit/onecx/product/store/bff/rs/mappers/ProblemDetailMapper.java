@@ -1,5 +1,9 @@
 package org.tkit.onecx.product.store.bff.rs.mappers;
 
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.tkit.quarkus.rs.mappers.OffsetDateTimeMapper;
@@ -13,4 +17,11 @@ public interface ProblemDetailMapper {
     @Mapping(target = "removeParamsItem", ignore = true)
     @Mapping(target = "removeInvalidParamsItem", ignore = true)
     ProblemDetailResponseDTO map(ProblemDetailResponse problemDetailResponse);
+
+    default Response problemDetail(WebApplicationException ex) {
+        var response = ex.getResponse();
+        return Response.status(response.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, response.getHeaderString(HttpHeaders.RETRY_AFTER))
+                .entity(map(response.readEntity(ProblemDetailResponse.class))).build();
+    }
 }
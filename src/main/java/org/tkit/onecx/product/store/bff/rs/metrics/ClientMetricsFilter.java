@@ -0,0 +1,138 @@
+package org.tkit.onecx.product.store.bff.rs.metrics;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import org.jboss.resteasy.reactive.client.spi.ResteasyReactiveClientRequestContext;
+import org.jboss.resteasy.reactive.client.spi.ResteasyReactiveClientRequestFilter;
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
+import org.tkit.onecx.product.store.bff.rs.services.ContextKeys;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+
+/**
+ * Metrics of the downstream REST clients.
+ * <ul>
+ * <li>latency histogram per operation with status, outcome and optional tenant tag</li>
+ * <li>response payload size per operation</li>
+ * </ul>
+ * The downstream calls are also added to the {@link ServerTimings} of timed requests.
+ */
+@Provider
+public class ClientMetricsFilter implements ResteasyReactiveClientRequestFilter {
+
+    static final String INVOKED_METHOD = "org.eclipse.microprofile.rest.client.invokedMethod";
+
+    static final String METRIC_PREFIX = "onecx.product-store.client.";
+
+    static final String OTHER_TENANT = "other";
+
+    static final String NO_TENANT = "none";
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    ProductStoreConfig productStoreConfig;
+
+    private final Set<String> tenants = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Number of tenant tag values, reserved before a tenant is added so that concurrent requests
+     * of new tenants cannot exceed the max tenants.
+     */
+    private final AtomicInteger tenantCount = new AtomicInteger();
+
+    @Override
+    public void filter(ResteasyReactiveClientRequestContext requestContext) {
+        if (!(requestContext.getProperty(INVOKED_METHOD) instanceof Method method)) {
+            return;
+        }
+        var client = client(method);
+        if (client == null) {
+            return;
+        }
+        var tags = Tags.of("client", client, "operation", method.getName());
+        if (productStoreConfig.metrics().tenantTags()) {
+            tags = tags.and("tenant", tenantTag(ContextKeys.tenant()));
+        }
+        var serverTimings = ServerTimings.current();
+        var operation = method.getName();
+        var start = System.nanoTime();
+        var sample = Timer.start(registry);
+        var requestTags = tags;
+        requestContext.getRestClientRequestContext().getResult().whenComplete((response, ex) -> {
+            record(sample, requestTags, response, ex);
+            if (serverTimings != null) {
+                serverTimings.downstream(operation, start, System.nanoTime());
+            }
+        });
+    }
+
+    private void record(Timer.Sample sample, Tags tags, Response result, Throwable ex) {
+        var response = result;
+        if (response == null && ex instanceof WebApplicationException wae) {
+            response = wae.getResponse();
+        }
+        var status = response != null ? Integer.toString(response.getStatus()) : "CLIENT_ERROR";
+        var outcome = response != null ? Outcome.forStatus(response.getStatus()).name() : Outcome.UNKNOWN.name();
+        sample.stop(Timer.builder(METRIC_PREFIX + "requests")
+                .description("Latency of the downstream calls")
+                .tags(tags.and("status", status, "outcome", outcome))
+                .publishPercentileHistogram()
+                .register(registry));
+        if (response != null && response.getLength() >= 0) {
+            DistributionSummary.builder(METRIC_PREFIX + "response.size")
+                    .description("Payload size of the downstream responses")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(registry)
+                    .record(response.getLength());
+        }
+    }
+
+    /**
+     * Returns the tenant tag, the number of tag values is bounded by the max tenants configuration.
+     * Requests without tenant are tagged with {@value #NO_TENANT}.
+     */
+    private String tenantTag(String tenant) {
+        if (tenant == null) {
+            return NO_TENANT;
+        }
+        if (tenants.contains(tenant)) {
+            return tenant;
+        }
+        var maxTenants = productStoreConfig.metrics().maxTenants();
+        if (tenantCount.getAndUpdate(count -> count < maxTenants ? count + 1 : count) >= maxTenants) {
+            return tenants.contains(tenant) ? tenant : OTHER_TENANT;
+        }
+        if (!tenants.add(tenant)) {
+            // added concurrently by another request, give the reserved slot back
+            tenantCount.decrementAndGet();
+        }
+        return tenant;
+    }
+
+    /**
+     * Returns the config key of the REST client which declares the invoked method.
+     */
+    public static String client(Method method) {
+        var restClient = method.getDeclaringClass().getAnnotation(RegisterRestClient.class);
+        if (restClient != null && !restClient.configKey().isBlank()) {
+            return restClient.configKey();
+        }
+        return null;
+    }
+}
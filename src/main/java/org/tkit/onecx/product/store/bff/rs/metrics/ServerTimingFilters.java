@@ -0,0 +1,78 @@
+package org.tkit.onecx.product.store.bff.rs.metrics;
+
+import java.io.InputStream;
+import java.util.concurrent.ThreadLocalRandom;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Adds the {@code Server-Timing} header to requested or sampled responses of all controllers.
+ */
+public class ServerTimingFilters {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    ServerTimings timings;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ServerRequestFilter
+    public void start(ContainerRequestContext requestContext) {
+        var serverTiming = config.serverTiming();
+        if (!serverTiming.enabled()) {
+            return;
+        }
+        timings.record();
+        if (Boolean.parseBoolean(requestContext.getHeaderString(serverTiming.requestHeader()))
+                || ThreadLocalRandom.current().nextDouble() < serverTiming.sampleRate()) {
+            timings.start(System.nanoTime());
+        }
+    }
+
+    @ServerResponseFilter
+    public void end(ContainerResponseContext responseContext) {
+        if (!config.serverTiming().enabled() || !timings.isEnabled()) {
+            return;
+        }
+        timings.handled(System.nanoTime());
+        serialize(responseContext);
+        responseContext.getHeaders().add(SERVER_TIMING, timings.header());
+    }
+
+    /**
+     * The entity is written after the response headers, to include the serialization time it is
+     * serialized here for the timed requests.
+     */
+    private void serialize(ContainerResponseContext responseContext) {
+        var entity = responseContext.getEntity();
+        if (entity == null || entity instanceof StreamingOutput || entity instanceof InputStream
+                || entity instanceof byte[] || entity instanceof String
+                || !MediaType.APPLICATION_JSON_TYPE.isCompatible(responseContext.getMediaType())) {
+            return;
+        }
+        try {
+            var start = System.nanoTime();
+            var body = objectMapper.writeValueAsBytes(entity);
+            timings.serialization(System.nanoTime() - start);
+            responseContext.setEntity(body, responseContext.getEntityAnnotations(), responseContext.getMediaType());
+        } catch (JsonProcessingException ex) {
+            // keep the entity, it is serialized by the message body writer
+        }
+    }
+}
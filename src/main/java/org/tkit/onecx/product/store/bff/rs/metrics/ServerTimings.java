@@ -0,0 +1,143 @@
+package org.tkit.onecx.product.store.bff.rs.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.context.RequestScoped;
+
+import io.quarkus.arc.Arc;
+
+/**
+ * Collects the timings of one request for the {@code Server-Timing} response header. The
+ * downstream calls may complete on other threads, they are recorded on the instance returned
+ * by {@link #current()}, which does not need an active request context. The downstream calls
+ * are recorded for all requests, so that they can be shared with coalesced requests which
+ * expose the header.
+ */
+@RequestScoped
+public class ServerTimings {
+
+    private volatile boolean recording;
+
+    private volatile boolean enabled;
+
+    private long start;
+
+    private long handled;
+
+    private long serialization;
+
+    private final Queue<Timing> downstream = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Returns the timings of the current request or {@code null} if the Server-Timing header
+     * is disabled.
+     */
+    public static ServerTimings current() {
+        if (!Arc.container().requestContext().isActive()) {
+            return null;
+        }
+        var timings = Arc.container().instance(ServerTimings.class).get().self();
+        return timings.recording ? timings : null;
+    }
+
+    /**
+     * Returns the instance behind the client proxy of the request scope.
+     */
+    ServerTimings self() {
+        return this;
+    }
+
+    void record() {
+        recording = true;
+    }
+
+    void start(long nanos) {
+        start = nanos;
+        enabled = true;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    void handled(long nanos) {
+        handled = nanos;
+    }
+
+    void serialization(long nanos) {
+        serialization = nanos;
+    }
+
+    /**
+     * Records a downstream call.
+     */
+    public void downstream(String operation, long startNanos, long endNanos) {
+        downstream.add(new Timing(operation, startNanos, endNanos));
+    }
+
+    /**
+     * Records the downstream calls of another request, for example of a coalesced call.
+     */
+    public void downstream(List<Timing> calls) {
+        downstream.addAll(calls);
+    }
+
+    /**
+     * Returns the downstream calls which started and ended within the interval.
+     */
+    public List<Timing> downstream(long fromNanos, long toNanos) {
+        return downstream.stream().filter(t -> t.start() >= fromNanos && t.end() <= toNanos).toList();
+    }
+
+    /**
+     * Returns the Server-Timing header value. The BFF time is the handler time in which no downstream
+     * call was in flight, it contains the mapping and the logic of the controllers.
+     */
+    String header() {
+        var joiner = new StringJoiner(", ");
+        var calls = new ArrayList<>(downstream);
+        calls.forEach(t -> joiner.add(entry("svc-" + t.name(), t.end() - t.start())));
+        var handler = handled - start;
+        joiner.add(entry("bff", handler - inFlight(calls)));
+        if (serialization > 0) {
+            joiner.add(entry("serialize", serialization));
+        }
+        joiner.add(entry("total", handler + serialization));
+        return joiner.toString();
+    }
+
+    /**
+     * Returns the time of the handler in which at least one downstream call was in flight.
+     */
+    private long inFlight(List<Timing> calls) {
+        calls.sort(Comparator.comparingLong(Timing::start));
+        long total = 0;
+        long from = start;
+        for (Timing call : calls) {
+            var callStart = Math.max(call.start(), from);
+            var callEnd = Math.min(call.end(), handled);
+            if (callEnd > callStart) {
+                total += callEnd - callStart;
+                from = callEnd;
+            }
+        }
+        return total;
+    }
+
+    private static String entry(String name, long nanos) {
+        return name + ";dur=" + String.format(Locale.ROOT, "%.1f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Timing of one downstream call.
+     */
+    public record Timing(String name, long start, long end) {
+    }
+}
@@ -0,0 +1,99 @@
+package org.tkit.onecx.product.store.bff.rs.metrics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.Startup;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Records the JFR {@code jdk.VirtualThreadPinned} events as metric, tagged with the first
+ * application frame of the pinned thread, so that pinning interceptors or client filters show up.
+ * The untagged events counter is registered on start, so that a missing pinning is visible as zero.
+ */
+@Startup
+@ApplicationScoped
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String EVENT_NAME = "jdk.VirtualThreadPinned";
+
+    static final String METRIC_NAME = "onecx.product-store.virtual-threads.pinned";
+
+    static final String EVENTS_METRIC_NAME = METRIC_NAME + ".events";
+
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "quarkus.virtual-threads.enabled", defaultValue = "true")
+    boolean virtualThreadsEnabled;
+
+    private RecordingStream stream;
+
+    private Counter events;
+
+    @PostConstruct
+    void start() {
+        var virtualThreads = config.virtualThreads();
+        if (!virtualThreadsEnabled || !virtualThreads.pinningDetection()) {
+            return;
+        }
+        events = Counter.builder(EVENTS_METRIC_NAME)
+                .description("Number of virtual thread pinning events")
+                .register(registry);
+        stream = new RecordingStream();
+        stream.enable(EVENT_NAME).withThreshold(virtualThreads.pinningThreshold()).withStackTrace();
+        stream.onEvent(EVENT_NAME, this::pinned);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    void pinned(RecordedEvent event) {
+        var frame = frame(event);
+        Timer.builder(METRIC_NAME)
+                .description("Virtual threads pinned to their carrier thread")
+                .tag("frame", frame)
+                .register(registry)
+                .record(event.getDuration());
+        events.increment();
+        log.debug("Virtual thread pinned for {} at {}", event.getDuration(), frame);
+    }
+
+    /**
+     * Returns the first frame which is not part of the JDK, it points to the code which pinned the thread.
+     */
+    private static String frame(RecordedEvent event) {
+        var stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName())
+                .filter(name -> !name.startsWith("java.") && !name.startsWith("jdk.") && !name.startsWith("sun."))
+                .findFirst()
+                .orElse("unknown");
+    }
+}
@@ -0,0 +1,48 @@
+package org.tkit.onecx.product.store.bff.rs.oidc;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+import org.jboss.resteasy.reactive.client.spi.ResteasyReactiveClientRequestContext;
+import org.jboss.resteasy.reactive.client.spi.ResteasyReactiveClientRequestFilter;
+
+import io.quarkus.arc.Unremovable;
+
+/**
+ * Adds the client credentials token of {@link DownstreamTokens} to the downstream requests.
+ * Registered through the providers of the client configuration.
+ */
+@Singleton
+@Unremovable
+@Priority(Priorities.AUTHENTICATION)
+public class DownstreamTokenFilter implements ResteasyReactiveClientRequestFilter {
+
+    static final String BEARER_SCHEME = "Bearer ";
+
+    @Inject
+    DownstreamTokens tokens;
+
+    @Override
+    public void filter(ResteasyReactiveClientRequestContext requestContext) {
+        var token = tokens.current();
+        if (token != null) {
+            requestContext.getHeaders().putSingle(HttpHeaders.AUTHORIZATION, BEARER_SCHEME + token);
+            return;
+        }
+        // no valid token, the request waits for the acquisition in flight
+        requestContext.suspend();
+        tokens.acquire().whenComplete((result, ex) -> {
+            if (ex != null) {
+                requestContext.abortWith(Response.status(Response.Status.UNAUTHORIZED).build());
+            } else {
+                requestContext.getHeaders().putSingle(HttpHeaders.AUTHORIZATION,
+                        BEARER_SCHEME + result.getAccessToken());
+            }
+            requestContext.resume();
+        });
+    }
+}
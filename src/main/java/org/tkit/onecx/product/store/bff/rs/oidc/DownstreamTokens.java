@@ -0,0 +1,177 @@
+package org.tkit.onecx.product.store.bff.rs.oidc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.oidc.client.OidcClient;
+import io.quarkus.oidc.client.Tokens;
+import io.quarkus.runtime.Startup;
+import io.vertx.core.Vertx;
+
+/**
+ * Client credentials tokens of the downstream clients. The token is acquired at startup and
+ * refreshed in the background before it expires, all callers share one acquisition in flight. A
+ * failed refresh falls back to the acquisition of new tokens.
+ */
+@Startup
+@ApplicationScoped
+public class DownstreamTokens {
+
+    private static final Logger log = LoggerFactory.getLogger(DownstreamTokens.class);
+
+    static final String METRIC_PREFIX = "onecx.product-store.tokens.";
+
+    private static final long NO_TIMER = -1;
+
+    @Inject
+    OidcClient oidcClient;
+
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Vertx vertx;
+
+    private final AtomicReference<CompletableFuture<Tokens>> inFlight = new AtomicReference<>();
+
+    private volatile Tokens tokens;
+
+    private volatile long timer = NO_TIMER;
+
+    private volatile boolean stopped;
+
+    private Counter refreshFailures;
+
+    @PostConstruct
+    void start() {
+        refreshFailures = Counter.builder(METRIC_PREFIX + "refresh.failures")
+                .description("Failed acquisitions of the downstream client token")
+                .register(registry);
+        if (config.tokens().proactiveRefresh()) {
+            acquire();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        stopped = true;
+        cancelTimer();
+    }
+
+    /**
+     * Returns the current access token or {@code null} if there is no token valid for longer than
+     * the expiry skew and the caller has to wait for {@link #acquire()}.
+     */
+    public String current() {
+        var current = tokens;
+        return valid(current) ? current.getAccessToken() : null;
+    }
+
+    /**
+     * Acquires a new token, or joins the acquisition in flight.
+     *
+     * @return the acquired tokens
+     */
+    public CompletableFuture<Tokens> acquire() {
+        var acquisition = new CompletableFuture<Tokens>();
+        var existing = inFlight.compareAndExchange(null, acquisition);
+        if (existing != null) {
+            return existing;
+        }
+
+        var sample = Timer.start(registry);
+        var current = tokens;
+        var request = current != null && current.getRefreshToken() != null
+                ? oidcClient.refreshTokens(current.getRefreshToken())
+                        .onFailure().recoverWithUni(ex -> {
+                            // an expired or revoked refresh token must not block new tokens
+                            log.info("Refresh of the downstream client token failed, acquiring new tokens: {}",
+                                    ex.getMessage());
+                            return oidcClient.getTokens();
+                        })
+                : oidcClient.getTokens();
+        request.subscribe().with(result -> {
+            sample.stop(acquisitionTimer("success"));
+            tokens = result;
+            inFlight.set(null);
+            acquisition.complete(result);
+            scheduleRefresh(result);
+        }, ex -> {
+            sample.stop(acquisitionTimer("failure"));
+            refreshFailures.increment();
+            log.warn("Acquisition of the downstream client token failed: {}", ex.getMessage());
+            inFlight.set(null);
+            acquisition.completeExceptionally(ex);
+            scheduleRetry();
+        });
+        return acquisition;
+    }
+
+    private Timer acquisitionTimer(String outcome) {
+        return Timer.builder(METRIC_PREFIX + "acquisition")
+                .description("Latency of the downstream client token acquisition")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private void scheduleRefresh(Tokens result) {
+        var expiresAt = result.getAccessTokenExpiresAt();
+        if (!config.tokens().proactiveRefresh() || expiresAt == null) {
+            return;
+        }
+        var lifetime = Duration.ofSeconds(expiresAt - Instant.now().getEpochSecond());
+        var refreshAhead = config.tokens().refreshAhead();
+        var delay = lifetime.compareTo(refreshAhead.multipliedBy(2)) > 0
+                ? lifetime.minus(refreshAhead)
+                : lifetime.dividedBy(2);
+        schedule(delay);
+    }
+
+    private void scheduleRetry() {
+        if (config.tokens().proactiveRefresh()) {
+            schedule(config.tokens().retryDelay());
+        }
+    }
+
+    private void schedule(Duration delay) {
+        if (stopped) {
+            return;
+        }
+        cancelTimer();
+        timer = vertx.setTimer(Math.max(1000, delay.toMillis()), _ -> acquire());
+    }
+
+    private void cancelTimer() {
+        var current = timer;
+        if (current != NO_TIMER) {
+            vertx.cancelTimer(current);
+            timer = NO_TIMER;
+        }
+    }
+
+    private boolean valid(Tokens tokens) {
+        if (tokens == null) {
+            return false;
+        }
+        var expiresAt = tokens.getAccessTokenExpiresAt();
+        return expiresAt == null
+                || expiresAt > Instant.now().plus(config.tokens().expirySkew()).getEpochSecond();
+    }
+}
@@ -0,0 +1,48 @@
+package org.tkit.onecx.product.store.bff.rs.services;
+
+import org.tkit.quarkus.context.ApplicationContext;
+
+/**
+ * Keys of the current request context used to isolate cached data. Requests without tenant bypass
+ * the tenant isolated caches and single-flight, they must not share one key across tenants.
+ */
+public final class ContextKeys {
+
+    private ContextKeys() {
+    }
+
+    /**
+     * Returns the tenant id of the current tkit application context or {@code null} if the
+     * request has no tenant.
+     */
+    public static String tenant() {
+        var ctx = ApplicationContext.get();
+        return ctx == null ? null : ctx.getTenantId();
+    }
+
+    /**
+     * Returns the principal of the current tkit application context.
+     */
+    public static String principal() {
+        var ctx = ApplicationContext.get();
+        return ctx == null ? null : ctx.getPrincipal();
+    }
+
+    /**
+     * Returns the tenant and principal of the current tkit application context. The application
+     * context is bound to the request thread, work which runs on other threads gets the scope
+     * passed explicitly.
+     */
+    public static Scope scope() {
+        return new Scope(tenant(), principal());
+    }
+
+    /**
+     * Tenant and principal of a request.
+     *
+     * @param tenant the tenant id
+     * @param principal the principal
+     */
+    public record Scope(String tenant, String principal) {
+    }
+}
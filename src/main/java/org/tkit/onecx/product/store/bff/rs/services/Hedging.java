@@ -0,0 +1,179 @@
+package org.tkit.onecx.product.store.bff.rs.services;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Hedging of idempotent downstream reads. When the call is slower than the configured percentile
+ * of the recent latencies of the operation, an identical call is sent. The first result wins and
+ * the other call is cancelled. The additional calls are limited by the hedge budget. Cancelled
+ * calls record the latency until their cancellation.
+ */
+@ApplicationScoped
+public class Hedging {
+
+    static final String METRIC_PREFIX = "onecx.product-store.hedging.";
+
+    /**
+     * Number of recent latencies per operation used for the percentile.
+     */
+    static final int RESERVOIR_SIZE = 256;
+
+    /**
+     * Maximum of saved hedges, in milli hedges, so that a quiet period does not allow a burst.
+     */
+    static final long MAX_BUDGET = 10_000;
+
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final ConcurrentHashMap<String, LatencyReservoir> latencies = new ConcurrentHashMap<>();
+
+    private final AtomicLong budget = new AtomicLong();
+
+    /**
+     * Executes the call with hedging if it is enabled for the operation.
+     *
+     * @param operation operation id of the downstream call
+     * @param call the downstream call including the mapping of the result, every invocation must
+     *        create a new call
+     * @return the result of the first finished call
+     */
+    public <T> Uni<T> execute(String operation, Supplier<Uni<T>> call) {
+        if (!enabled(operation)) {
+            return call.get();
+        }
+        var reservoir = latencies.computeIfAbsent(operation, _ -> new LatencyReservoir());
+        var hedging = config.hedging();
+        deposit(hedging.budget());
+        var primary = timed(reservoir, call.get()).map(result -> new Attempt<>(result, false));
+        var delay = reservoir.percentile(hedging.percentile(), hedging.minSamples());
+        if (delay == null) {
+            return primary.map(Attempt::result);
+        }
+        var hedgeCall = call.get();
+        var hedge = Uni.createFrom().voidItem()
+                .onItem().delayIt().by(max(delay, hedging.minDelay()))
+                .chain(() -> {
+                    if (!withdraw()) {
+                        counter("budget.exhausted", operation).increment();
+                        return Uni.createFrom().<Attempt<T>> nothing();
+                    }
+                    counter("fired", operation).increment();
+                    // a failed hedge, e.g. rejected by the concurrency limit, leaves the result to the primary call
+                    return timed(reservoir, hedgeCall).map(result -> new Attempt<>(result, true))
+                            .onFailure().recoverWithUni(() -> Uni.createFrom().<Attempt<T>> nothing());
+                });
+        return Uni.join().first(primary, hedge).toTerminate()
+                .map(attempt -> {
+                    if (attempt.hedge()) {
+                        counter("won", operation).increment();
+                    }
+                    return attempt.result();
+                });
+    }
+
+    private boolean enabled(String operation) {
+        var hedging = config.hedging();
+        return hedging.enabled() && hedging.operations().getOrDefault(operation, true);
+    }
+
+    private static <T> Uni<T> timed(LatencyReservoir reservoir, Uni<T> call) {
+        return Uni.createFrom().deferred(() -> {
+            var start = System.nanoTime();
+            return call.onTermination().invoke((item, failure, cancelled) -> {
+                // a cancelled call took at least until its cancellation, leaving it out hides slow calls
+                if (failure == null) {
+                    reservoir.record(System.nanoTime() - start);
+                }
+            });
+        });
+    }
+
+    /**
+     * Every call adds the budget percentage of a hedge, a hedge needs a full one.
+     */
+    private void deposit(int percent) {
+        budget.getAndUpdate(current -> Math.min(MAX_BUDGET, current + percent * 10L));
+    }
+
+    private boolean withdraw() {
+        var current = budget.get();
+        while (current >= 1000) {
+            if (budget.compareAndSet(current, current - 1000)) {
+                return true;
+            }
+            current = budget.get();
+        }
+        return false;
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(METRIC_PREFIX + name)
+                .description("Hedged downstream reads: " + name)
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private record Attempt<T>(T result, boolean hedge) {
+    }
+
+    /**
+     * Ring buffer of the recent latencies, the percentile is recomputed after every
+     * {@link #RECOMPUTE_INTERVAL} recorded latencies.
+     */
+    static final class LatencyReservoir {
+
+        static final int RECOMPUTE_INTERVAL = 16;
+
+        private final long[] values = new long[RESERVOIR_SIZE];
+
+        private long count;
+
+        private double percentile = Double.NaN;
+
+        private Duration value;
+
+        synchronized void record(long nanos) {
+            values[(int) (count % RESERVOIR_SIZE)] = nanos;
+            count++;
+            if (count % RECOMPUTE_INTERVAL == 0) {
+                value = null;
+            }
+        }
+
+        synchronized Duration percentile(double percentile, int minSamples) {
+            if (count < minSamples) {
+                return null;
+            }
+            if (value == null || this.percentile != percentile) {
+                var size = (int) Math.min(count, RESERVOIR_SIZE);
+                var sorted = Arrays.copyOf(values, size);
+                Arrays.sort(sorted);
+                var index = Math.min(size - 1, (int) Math.ceil(percentile * size) - 1);
+                value = Duration.ofNanos(sorted[Math.max(0, index)]);
+                this.percentile = percentile;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.tkit.onecx.product.store.bff.rs.services;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+
+import org.tkit.onecx.product.store.bff.rs.cache.CachedImage;
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
+
+/**
+ * Creates downscaled variants of the product images with the pure JVM image I/O.
+ */
+@ApplicationScoped
+public class ImageResizeService {
+
+    @Inject
+    ProductStoreConfig config;
+
+    /**
+     * Output format of the image variant.
+     *
+     * @param name image I/O format name
+     * @param mediaType media type of the variant
+     */
+    public record OutputFormat(String name, String mediaType) {
+
+        static final OutputFormat PNG = new OutputFormat("png", "image/png");
+
+        static final OutputFormat JPEG = new OutputFormat("jpeg", "image/jpeg");
+
+        static final OutputFormat WEBP = new OutputFormat("webp", "image/webp");
+
+        boolean opaque() {
+            return this == JPEG;
+        }
+    }
+
+    /**
+     * Select the output format from the {@code format} query parameter or the accepted media types.
+     * WebP is only used when an image I/O writer for WebP is available, otherwise PNG is used.
+     */
+    public OutputFormat outputFormat(String format, List<MediaType> acceptable) {
+        if (format != null) {
+            return switch (format.toLowerCase()) {
+                case "jpg", "jpeg" -> OutputFormat.JPEG;
+                case "webp" -> webpSupported() ? OutputFormat.WEBP : OutputFormat.PNG;
+                default -> OutputFormat.PNG;
+            };
+        }
+        if (webpSupported() && acceptable.stream()
+                .anyMatch(m -> "image".equals(m.getType()) && "webp".equals(m.getSubtype()))) {
+            return OutputFormat.WEBP;
+        }
+        return OutputFormat.PNG;
+    }
+
+    /**
+     * Cache key of the image variant.
+     */
+    public String variant(Integer width, Integer height, OutputFormat format) {
+        return (width == null ? "" : width) + "x" + (height == null ? "" : height) + "." + format.name();
+    }
+
+    /**
+     * Downscale the image to fit into the requested width and height. The aspect ratio is kept and
+     * images are never upscaled.
+     *
+     * @return the encoded variant or {@code null} if the original image could not be decoded or has
+     *         more pixels than allowed
+     */
+    public byte[] resize(CachedImage original, Integer width, Integer height, OutputFormat format) {
+        try {
+            var bytes = new byte[original.length()];
+            original.body().duplicate().get(bytes);
+            var source = decode(bytes);
+            if (source == null) {
+                return null;
+            }
+
+            double scale = 1.0;
+            if (width != null) {
+                scale = Math.min(scale, (double) width / source.getWidth());
+            }
+            if (height != null) {
+                scale = Math.min(scale, (double) height / source.getHeight());
+            }
+            int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+            int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+            var target = scale(source, targetWidth, targetHeight, format.opaque());
+            var out = new ByteArrayOutputStream();
+            if (!ImageIO.write(target, format.name(), out)) {
+                return null;
+            }
+            return out.toByteArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Decodes the image after its dimensions were checked, a small image file can declare dimensions
+     * which do not fit into the heap once decoded.
+     */
+    private BufferedImage decode(byte[] bytes) throws IOException {
+        try (var input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            var readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > config.images().resize().maxPixels()) {
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales the image in steps of at most one half to avoid aliasing of the bilinear interpolation.
+     */
+    private static BufferedImage scale(BufferedImage source, int targetWidth, int targetHeight, boolean opaque) {
+        var current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(targetWidth, w / 2);
+            h = Math.max(targetHeight, h / 2);
+            current = draw(current, w, h, opaque);
+        } while (w != targetWidth || h != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, boolean opaque) {
+        var target = new BufferedImage(width, height, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            if (opaque) {
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+            }
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static boolean webpSupported() {
+        return ImageIO.getImageWritersByFormatName(OutputFormat.WEBP.name()).hasNext();
+    }
+}
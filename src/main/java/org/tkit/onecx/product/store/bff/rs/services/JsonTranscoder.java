@@ -0,0 +1,161 @@
+package org.tkit.onecx.product.store.bff.rs.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.MicroserviceDTO;
+
+/**
+ * Transcodes the svc JSON of pass-through reads directly into the JSON of the BFF DTO, token by token,
+ * without creating the client model and DTO objects. The properties of the DTO are taken from the
+ * Jackson introspection of the DTO class, svc fields without DTO property are dropped like in the
+ * MapStruct mappers. Only the differences of the mappers are rewritten:
+ * <ul>
+ * <li>renamed properties, for example {@code version} to {@code appVersion} of the microservices</li>
+ * <li>comma separated strings of collection properties, for example the classifications</li>
+ * <li>missing or {@code null} classifications, the mappers return an empty set for them</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class JsonTranscoder {
+
+    /**
+     * Renamed properties by DTO, svc field name to DTO property name.
+     */
+    private static final Map<Class<?>, Map<String, String>> RENAMES = Map.of(
+            MicroserviceDTO.class, Map.of("version", "appVersion", "name", "appName"));
+
+    /**
+     * Properties split by the {@code map(String)} helper of the mappers, which is also called for
+     * {@code null} values.
+     */
+    private static final Set<String> SPLIT = Set.of("classifications");
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private final Map<Class<?>, Map<String, JavaType>> properties = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the streaming output which transcodes the entity of the svc response into the JSON
+     * of the DTO. The svc response is closed after the output has been written.
+     */
+    public StreamingOutput transcode(Response response, Class<?> dtoType) {
+        return out -> {
+            try (response) {
+                transcode(response.readEntity(InputStream.class), out, dtoType);
+            }
+        };
+    }
+
+    void transcode(InputStream in, OutputStream out, Class<?> dtoType) throws IOException {
+        try (var parser = objectMapper.getFactory().createParser(in);
+                var generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (parser.nextToken() != null) {
+                copyValue(parser, generator, objectMapper.constructType(dtoType));
+            }
+        }
+    }
+
+    private void copyValue(JsonParser parser, JsonGenerator generator, JavaType type) throws IOException {
+        var token = parser.currentToken();
+        if (type.isCollectionLikeType() || type.isArrayType()) {
+            if (token == JsonToken.VALUE_STRING) {
+                writeSplit(generator, parser.getText());
+                return;
+            }
+            if (token == JsonToken.START_ARRAY) {
+                generator.writeStartArray();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    copyValue(parser, generator, type.getContentType());
+                }
+                generator.writeEndArray();
+                return;
+            }
+        }
+        if (token == JsonToken.START_OBJECT && isDto(type)) {
+            copyObject(parser, generator, type.getRawClass());
+            return;
+        }
+        generator.copyCurrentStructure(parser);
+    }
+
+    private void copyObject(JsonParser parser, JsonGenerator generator, Class<?> dtoType) throws IOException {
+        var dtoProperties = properties(dtoType);
+        var renames = RENAMES.getOrDefault(dtoType, Map.of());
+        Set<String> split = new HashSet<>();
+        generator.writeStartObject();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var name = renames.getOrDefault(parser.currentName(), parser.currentName());
+            parser.nextToken();
+            var propertyType = dtoProperties.get(name);
+            if (propertyType == null) {
+                parser.skipChildren();
+                continue;
+            }
+            generator.writeFieldName(name);
+            if (SPLIT.contains(name)) {
+                split.add(name);
+                if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                    writeSplit(generator, "");
+                    continue;
+                }
+            }
+            copyValue(parser, generator, propertyType);
+        }
+        for (String name : SPLIT) {
+            if (!split.contains(name) && dtoProperties.containsKey(name)) {
+                generator.writeFieldName(name);
+                writeSplit(generator, "");
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Same values as the {@code map(String)} classifications helper of the mappers.
+     */
+    private static void writeSplit(JsonGenerator generator, String value) throws IOException {
+        generator.writeStartArray();
+        if (!value.isBlank()) {
+            for (String item : new LinkedHashSet<>(Arrays.asList(value.split(",")))) {
+                generator.writeString(item);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private boolean isDto(JavaType type) {
+        return type.getRawClass().getPackage() == MicroserviceDTO.class.getPackage();
+    }
+
+    private Map<String, JavaType> properties(Class<?> dtoType) {
+        return properties.computeIfAbsent(dtoType, type -> {
+            Map<String, JavaType> result = new HashMap<>();
+            objectMapper.getSerializationConfig().introspect(objectMapper.constructType(type))
+                    .findProperties()
+                    .forEach(p -> result.put(p.getName(), p.getPrimaryType()));
+            return result;
+        });
+    }
+}
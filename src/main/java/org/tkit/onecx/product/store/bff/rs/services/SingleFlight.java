@@ -0,0 +1,116 @@
+package org.tkit.onecx.product.store.bff.rs.services;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.tkit.onecx.product.store.bff.rs.config.ProductStoreConfig;
+import org.tkit.onecx.product.store.bff.rs.metrics.ServerTimings;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesces identical concurrent downstream calls. The first caller executes the call and all
+ * concurrent callers with the same operation, arguments and scope receive its result together
+ * with the {@link ServerTimings} of its downstream calls.
+ */
+@ApplicationScoped
+public class SingleFlight {
+
+    @Inject
+    ProductStoreConfig config;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final ConcurrentHashMap<CallKey, CompletableFuture<Flight>> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Executes the call in the scope of the current request.
+     *
+     * @see #execute(ContextKeys.Scope, String, Supplier, Object...)
+     */
+    public <T> T execute(String operation, Supplier<T> call, Object... args) {
+        return execute(ContextKeys.scope(), operation, call, args);
+    }
+
+    /**
+     * Executes the call or joins an identical call which is already in flight. A failure of the
+     * joined call is not shared, in that case the call is executed again for this caller. Calls
+     * without tenant are not coalesced.
+     *
+     * @param scope tenant and principal of the request
+     * @param operation operation id of the downstream call
+     * @param call the downstream call including the mapping of the result
+     * @param args arguments which identify the call
+     * @return the result of the call
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(ContextKeys.Scope scope, String operation, Supplier<T> call, Object... args) {
+        if (!enabled(operation) || scope.tenant() == null) {
+            return call.get();
+        }
+        var key = new CallKey(operation, Arrays.asList(args), scope.tenant(), principalScope(scope));
+        var future = new CompletableFuture<Flight>();
+        var inFlight = calls.putIfAbsent(key, future);
+        if (inFlight != null) {
+            coalesced(operation).increment();
+            Flight flight;
+            try {
+                flight = inFlight.join();
+            } catch (CompletionException ex) {
+                return call.get();
+            }
+            var timings = ServerTimings.current();
+            if (timings != null) {
+                timings.downstream(flight.downstream());
+            }
+            return (T) flight.result();
+        }
+
+        var timings = ServerTimings.current();
+        var start = System.nanoTime();
+        try {
+            T result = call.get();
+            future.complete(new Flight(result,
+                    timings != null ? timings.downstream(start, System.nanoTime()) : List.of()));
+            return result;
+        } catch (RuntimeException ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            calls.remove(key, future);
+        }
+    }
+
+    private boolean enabled(String operation) {
+        var singleFlight = config.singleFlight();
+        return singleFlight.enabled() && singleFlight.operations().getOrDefault(operation, true);
+    }
+
+    private String principalScope(ContextKeys.Scope scope) {
+        return config.singleFlight().scope() == ProductStoreConfig.SingleFlightScope.PRINCIPAL
+                ? scope.principal()
+                : null;
+    }
+
+    private Counter coalesced(String operation) {
+        return Counter.builder("onecx.product-store.single-flight.coalesced")
+                .description("Number of requests which joined an identical downstream call in flight")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    private record CallKey(String operation, List<Object> args, String tenant, String principal) {
+    }
+
+    private record Flight(Object result, List<ServerTimings.Timing> downstream) {
+    }
+}
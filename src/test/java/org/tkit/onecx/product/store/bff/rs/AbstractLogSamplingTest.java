@@ -0,0 +1,98 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.Header;
+
+import gen.org.tkit.onecx.product.store.client.model.RefType;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+
+/**
+ * Captures the log messages of the image requests to check the sampling of the read parameters.
+ */
+abstract class AbstractLogSamplingTest extends AbstractTest {
+
+    static final String MOCK_ID = "mock_log_sampling";
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    private final Queue<String> messages = new ConcurrentLinkedQueue<>();
+
+    private final Handler handler = new Handler() {
+
+        @Override
+        public void publish(LogRecord logRecord) {
+            messages.add(logRecord instanceof ExtLogRecord ext ? ext.getFormattedMessage() : logRecord.getMessage());
+        }
+
+        @Override
+        public void flush() {
+            // nothing buffered
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    };
+
+    @BeforeEach
+    void captureLog() {
+        Logger.getLogger("").addHandler(handler);
+    }
+
+    @AfterEach
+    void releaseLog() {
+        Logger.getLogger("").removeHandler(handler);
+        try {
+            mockServerClient.clear(MOCK_ID);
+        } catch (Exception _) {
+            //  mockId not existing
+        }
+    }
+
+    /**
+     * Loads the image and returns the captured log messages of the getImage call.
+     */
+    List<String> getImage(String refId) {
+        mockServerClient.when(request()
+                .withPath("/internal/images/" + refId + "/" + RefType.LOGO)
+                .withMethod(HttpMethod.GET))
+                .withId(MOCK_ID)
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withHeaders(new Header(HttpHeaders.CONTENT_TYPE, "image/png"))
+                        .withBody(new byte[] { 1, 2, 3 }));
+
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .get("/images/" + refId + "/" + RefType.LOGO)
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode());
+
+        return messages.stream().filter(message -> message != null && message.contains("getImage")).toList();
+    }
+}
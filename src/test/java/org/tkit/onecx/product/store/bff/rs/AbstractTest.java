@@ -26,6 +26,10 @@ public abstract class AbstractTest {
     protected static final String APM_HEADER_PARAM = ConfigProvider.getConfig()
             .getValue("%test.tkit.rs.context.token.header-param", String.class);
 
+    protected static final String TENANT_HEADER = "tenant-id";
+
+    protected static final String TENANT = "tenant-1";
+
     static {
         RestAssured.config = RestAssuredConfig.config().objectMapperConfig(
                 ObjectMapperConfig.objectMapperConfig().jackson2ObjectMapperFactory(
@@ -0,0 +1,66 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+
+import gen.org.tkit.onecx.product.store.client.model.Product;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+
+@QuarkusTest
+class ClientMetricsTest extends AbstractTest {
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @Test
+    void clientMetrics_shouldBeRecorded() {
+        Product data = new Product();
+        data.setId("metrics-1");
+        data.setName("client-metrics");
+        data.setBasePath("/metrics");
+        mockServerClient
+                .when(request().withPath("/internal/products/metrics-1").withMethod(HttpMethod.GET))
+                .withId("mock1")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(data)));
+
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .contentType(APPLICATION_JSON)
+                .get("/products/metrics-1")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode());
+
+        var metrics = given()
+                .when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract().asString();
+
+        Assertions.assertTrue(metrics.contains("onecx_product_store_client_requests_seconds_count{"
+                + "client=\"onecx_product_store_internal\",operation=\"getProduct\",outcome=\"SUCCESS\",status=\"200\"}"));
+        Assertions.assertTrue(metrics.contains("onecx_product_store_client_response_size_bytes_count{"
+                + "client=\"onecx_product_store_internal\",operation=\"getProduct\"}"));
+
+        mockServerClient.clear("mock1");
+    }
+}
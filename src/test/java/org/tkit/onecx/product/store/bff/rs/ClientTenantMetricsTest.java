@@ -0,0 +1,110 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.MfeAndMsSearchCriteriaDTO;
+import gen.org.tkit.onecx.product.store.client.model.MicroservicePageResult;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+
+@QuarkusTest
+@TestProfile(ClientTenantMetricsTest.TenantTagsProfile.class)
+class ClientTenantMetricsTest extends AbstractTest {
+
+    static final int MAX_TENANTS = 2;
+
+    static final Pattern TENANT_TAG = Pattern.compile(
+            "onecx_product_store_client_requests_seconds_count\\{[^}]*operation=\"searchMicroservice\"[^}]*tenant=\"([^\"]+)\"");
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @AfterEach
+    void clearMocks() {
+        try {
+            mockServerClient.clear("mock_tenant_metrics");
+        } catch (Exception _) {
+            //  mockId not existing
+        }
+    }
+
+    @Test
+    void tenantTags_shouldBeBoundedForConcurrentTenants() throws Exception {
+        mockServerClient
+                .when(request().withPath("/internal/microservices/search").withMethod(HttpMethod.POST))
+                .withId("mock_tenant_metrics")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new MicroservicePageResult().stream(List.of()))));
+
+        var token = keycloakClient.getAccessToken(ADMIN);
+        var calls = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < 10; i++) {
+            var tenant = "tenant-metrics-" + i;
+            calls.add(() -> given()
+                    .when()
+                    .auth().oauth2(token)
+                    .header(APM_HEADER_PARAM, ADMIN)
+                    .header(TENANT_HEADER, tenant)
+                    .contentType(APPLICATION_JSON)
+                    .body(new MfeAndMsSearchCriteriaDTO())
+                    .post("/microservices/search")
+                    .then()
+                    .extract().statusCode());
+        }
+        try (var executor = Executors.newFixedThreadPool(calls.size())) {
+            for (var result : executor.invokeAll(calls)) {
+                Assertions.assertEquals(Response.Status.OK.getStatusCode(), result.get());
+            }
+        }
+
+        var metrics = given()
+                .when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract().asString();
+
+        var tenants = TENANT_TAG.matcher(metrics).results().map(m -> m.group(1))
+                .filter(tenant -> tenant.startsWith("tenant-metrics-"))
+                .distinct()
+                .count();
+        Assertions.assertEquals(MAX_TENANTS, tenants);
+        Assertions.assertTrue(metrics.contains("operation=\"searchMicroservice\",outcome=\"SUCCESS\",status=\"200\","
+                + "tenant=\"other\""));
+    }
+
+    public static class TenantTagsProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.product-store.metrics.tenant-tags", "true",
+                    "onecx.product-store.metrics.max-tenants", String.valueOf(MAX_TENANTS));
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.Delay;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProblemDetailResponseDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.UpdateProductRequestDTO;
+import gen.org.tkit.onecx.product.store.client.model.Product;
+import gen.org.tkit.onecx.product.store.client.model.RefType;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+import io.restassured.response.ExtractableResponse;
+
+@QuarkusTest
+@TestProfile(ConcurrencyLimitTest.ConcurrencyLimitProfile.class)
+class ConcurrencyLimitTest extends AbstractTest {
+
+    static final int REQUESTS = 12;
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @AfterEach
+    void clearMocks() {
+        for (var id : List.of("mock_slow", "mock_image", "mock_slow_update")) {
+            try {
+                mockServerClient.clear(id);
+            } catch (Exception _) {
+                //  mockId not existing
+            }
+        }
+    }
+
+    @Test
+    void slowDownstream_shouldShedRequests() throws Exception {
+        var data = new Product().id("limited").name("limited").basePath("/limited");
+        mockServerClient
+                .when(request().withPath("/internal/products/limited").withMethod(HttpMethod.GET))
+                .withId("mock_slow")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(data))
+                        .withDelay(Delay.delay(TimeUnit.MILLISECONDS, 500)));
+
+        var token = keycloakClient.getAccessToken(ADMIN);
+        var calls = new ArrayList<Callable<ExtractableResponse<?>>>();
+        for (int i = 0; i < REQUESTS; i++) {
+            calls.add(() -> given()
+                    .when()
+                    .auth().oauth2(token)
+                    .header(APM_HEADER_PARAM, ADMIN)
+                    .contentType(APPLICATION_JSON)
+                    .get("/products/limited")
+                    .then()
+                    .extract());
+        }
+
+        int ok = 0;
+        int rejected = 0;
+        try (var executor = Executors.newFixedThreadPool(REQUESTS)) {
+            for (var result : executor.invokeAll(calls)) {
+                var response = result.get();
+                if (response.statusCode() == Response.Status.OK.getStatusCode()) {
+                    ok++;
+                } else {
+                    Assertions.assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), response.statusCode());
+                    Assertions.assertEquals("1", response.header(HttpHeaders.RETRY_AFTER));
+                    var problem = response.as(ProblemDetailResponseDTO.class);
+                    Assertions.assertEquals("SERVICE_OVERLOADED", problem.getErrorCode());
+                    rejected++;
+                }
+            }
+        }
+
+        Assertions.assertTrue(ok > 0);
+        Assertions.assertTrue(rejected > 0);
+
+        var metrics = metrics();
+
+        Assertions.assertTrue(metrics.contains("onecx_product_store_limiter_rejected_total{client=\"onecx_product_store_internal\"}"));
+        Assertions.assertTrue(metrics.contains("onecx_product_store_limiter_limit{client=\"onecx_product_store_internal\"} 1.0"));
+        Assertions.assertTrue(metrics.contains("onecx_product_store_limiter_in_flight{client=\"onecx_product_store_internal\"}"));
+    }
+
+    @Test
+    void slowDownstream_shouldShedWrites() throws Exception {
+        var data = new Product().id("limited-update").name("limited-update").basePath("/limited-update");
+        mockServerClient
+                .when(request().withPath("/internal/products/limited-update").withMethod(HttpMethod.PUT))
+                .withId("mock_slow_update")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(data))
+                        .withDelay(Delay.delay(TimeUnit.MILLISECONDS, 500)));
+
+        var update = new UpdateProductRequestDTO().name("limited-update").basePath("/limited-update").version("1.0.0");
+        var token = keycloakClient.getAccessToken(ADMIN);
+        var calls = new ArrayList<Callable<ExtractableResponse<?>>>();
+        for (int i = 0; i < REQUESTS; i++) {
+            calls.add(() -> given()
+                    .when()
+                    .auth().oauth2(token)
+                    .header(APM_HEADER_PARAM, ADMIN)
+                    .contentType(APPLICATION_JSON)
+                    .body(update)
+                    .put("/products/limited-update")
+                    .then()
+                    .extract());
+        }
+
+        int rejected = 0;
+        try (var executor = Executors.newFixedThreadPool(REQUESTS)) {
+            for (var result : executor.invokeAll(calls)) {
+                var response = result.get();
+                if (response.statusCode() != Response.Status.OK.getStatusCode()) {
+                    Assertions.assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), response.statusCode());
+                    Assertions.assertEquals("1", response.header(HttpHeaders.RETRY_AFTER));
+                    var problem = response.as(ProblemDetailResponseDTO.class);
+                    Assertions.assertEquals("SERVICE_OVERLOADED", problem.getErrorCode());
+                    rejected++;
+                }
+            }
+        }
+
+        Assertions.assertTrue(rejected > 0);
+    }
+
+    @Test
+    void downstreamServerErrors_shouldDecreaseLimit() {
+        var refId = "limitedImage";
+        mockImage(refId, Response.Status.NOT_FOUND);
+        for (int i = 0; i < 3; i++) {
+            getImage(refId);
+        }
+        // client errors of the downstream service do not decrease the limit
+        Assertions.assertTrue(metrics().contains("onecx_product_store_limiter_limit{client=\"onecx_image_internal\"} 4.0"));
+
+        mockServerClient.clear("mock_image");
+        mockImage(refId, Response.Status.INTERNAL_SERVER_ERROR);
+        getImage(refId);
+        Assertions.assertTrue(metrics().contains("onecx_product_store_limiter_limit{client=\"onecx_image_internal\"} 2.0"));
+    }
+
+    private void mockImage(String refId, Response.Status status) {
+        mockServerClient
+                .when(request().withPath("/internal/images/" + refId + "/" + RefType.LOGO).withMethod(HttpMethod.GET))
+                .withId("mock_image")
+                .respond(response().withStatusCode(status.getStatusCode()));
+    }
+
+    private void getImage(String refId) {
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .get("/images/" + refId + "/" + RefType.LOGO)
+                .then()
+                .extract();
+    }
+
+    private String metrics() {
+        return given()
+                .when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract().asString();
+    }
+
+    public static class ConcurrencyLimitProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.product-store.limiter.enabled", "true",
+                    "onecx.product-store.limiter.initial-limit", "4",
+                    "onecx.product-store.limiter.min-limit", "1",
+                    "onecx.product-store.limiter.latency-threshold", "200ms",
+                    "onecx.product-store.limiter.backoff-ratio", "0.5");
+        }
+    }
+}
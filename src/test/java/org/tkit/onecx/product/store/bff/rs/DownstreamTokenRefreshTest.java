@@ -0,0 +1,131 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+import static org.mockserver.model.Parameter.param;
+import static org.mockserver.model.ParameterBody.params;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.Delay;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+import org.mockserver.verify.VerificationTimes;
+import org.tkit.onecx.product.store.bff.rs.oidc.DownstreamTokens;
+
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+/**
+ * The downstream client tokens of this profile are issued by the mock server with a lifetime of
+ * two seconds, see {@code mockserver/tokens.json}, so they are refreshed in the background about
+ * every second.
+ */
+@QuarkusTest
+@TestProfile(DownstreamTokenRefreshTest.DownstreamTokenRefreshProfile.class)
+class DownstreamTokenRefreshTest extends AbstractTest {
+
+    static final String TOKEN_PATH = "/tokens-realm/token";
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @Inject
+    DownstreamTokens tokens;
+
+    @AfterEach
+    void clearMocks() {
+        for (var id : List.of("mock_token_delay", "mock_refresh_failure", "mock_token_fallback")) {
+            try {
+                mockServerClient.clear(id);
+            } catch (Exception _) {
+                //  mockId not existing
+            }
+        }
+    }
+
+    @Test
+    void downstreamToken_shouldBeRefreshedBeforeExpiry() throws Exception {
+        var refresh = request().withPath(TOKEN_PATH)
+                .withBody(params(param("grant_type", "refresh_token")));
+
+        // the token acquired at startup expires after two seconds and is refreshed ahead
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (mockServerClient.retrieveRecordedRequests(refresh).length == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        mockServerClient.verify(refresh, VerificationTimes.atLeast(1));
+    }
+
+    @Test
+    void acquire_shouldShareAcquisitionInFlight() {
+        mockServerClient
+                .when(request().withPath(TOKEN_PATH).withMethod(HttpMethod.POST))
+                .withPriority(100)
+                .withId("mock_token_delay")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(Map.of("access_token", "delayed-token", "token_type", "Bearer",
+                                "expires_in", 2, "refresh_token", "delayed-refresh")))
+                        .withDelay(Delay.delay(TimeUnit.MILLISECONDS, 500)));
+
+        var first = tokens.acquire();
+        var second = tokens.acquire();
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(first.join().getAccessToken(), second.join().getAccessToken());
+    }
+
+    @Test
+    void acquire_shouldFallBackToNewTokens_whenRefreshFails() throws Exception {
+        mockServerClient
+                .when(request().withPath(TOKEN_PATH).withMethod(HttpMethod.POST)
+                        .withBody(params(param("grant_type", "refresh_token"))))
+                .withPriority(100)
+                .withId("mock_refresh_failure")
+                .respond(response().withStatusCode(Response.Status.BAD_REQUEST.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(Map.of("error", "invalid_grant"))));
+        mockServerClient
+                .when(request().withPath(TOKEN_PATH).withMethod(HttpMethod.POST)
+                        .withBody(params(param("grant_type", "client_credentials"))))
+                .withPriority(100)
+                .withId("mock_token_fallback")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(Map.of("access_token", "fallback-token", "token_type", "Bearer",
+                                "expires_in", 2, "refresh_token", "fallback-refresh"))));
+
+        // an acquisition started before the expectations may still complete with the previous token
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        var token = tokens.acquire().join().getAccessToken();
+        while (!"fallback-token".equals(token) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            token = tokens.acquire().join().getAccessToken();
+        }
+        Assertions.assertEquals("fallback-token", token);
+    }
+
+    public static class DownstreamTokenRefreshProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("quarkus.oidc-client.auth-server-url", "${quarkus.mockserver.endpoint}/tokens-realm",
+                    "quarkus.oidc-client.discovery-enabled", "false",
+                    "quarkus.oidc-client.token-path", "/token",
+                    "onecx.product-store.tokens.expiry-skew", "0S");
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+import org.mockserver.verify.VerificationTimes;
+import org.tkit.onecx.product.store.bff.rs.oidc.DownstreamTokens;
+
+import gen.org.tkit.onecx.product.store.client.model.Product;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+
+@QuarkusTest
+class DownstreamTokensTest extends AbstractTest {
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @Inject
+    DownstreamTokens tokens;
+
+    @Test
+    void downstreamToken_shouldBeAcquiredAhead() {
+        var token = tokens.acquire().join().getAccessToken();
+        Assertions.assertEquals(token, tokens.current());
+
+        Product data = new Product();
+        data.setId("tokens-1");
+        data.setName("downstream-tokens");
+        data.setBasePath("/tokens");
+        mockServerClient
+                .when(request().withPath("/internal/products/tokens-1").withMethod(HttpMethod.GET))
+                .withId("mock1")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(data)));
+
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .contentType(APPLICATION_JSON)
+                .get("/products/tokens-1")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode());
+
+        mockServerClient.verify(request().withPath("/internal/products/tokens-1")
+                .withHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token), VerificationTimes.once());
+
+        var metrics = given()
+                .when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract().asString();
+
+        Assertions.assertTrue(metrics.contains("onecx_product_store_tokens_acquisition_seconds_count{outcome=\"success\"}"));
+        Assertions.assertTrue(metrics.contains("onecx_product_store_tokens_refresh_failures_total"));
+
+        mockServerClient.clear("mock1");
+    }
+}
@@ -0,0 +1,117 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.matchers.Times;
+import org.mockserver.model.Delay;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.SlotDTO;
+import gen.org.tkit.onecx.product.store.client.model.Slot;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+
+@QuarkusTest
+@TestProfile(HedgingTest.HedgingProfile.class)
+class HedgingTest extends AbstractTest {
+
+    static final int MIN_SAMPLES = 5;
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @AfterEach
+    void clearMocks() {
+        for (var id : List.of("mock_fast", "mock_slow")) {
+            try {
+                mockServerClient.clear(id);
+            } catch (Exception _) {
+                //  mockId not existing
+            }
+        }
+    }
+
+    @Test
+    void getSlot_shouldBeHedgedWhenSlow() {
+        var id = "hedgedSlot";
+        var data = new Slot().id(id).appId("app1").name("slot1");
+        mockServerClient
+                .when(request().withPath("/internal/slots/" + id).withMethod(HttpMethod.GET))
+                .withId("mock_fast")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(data)));
+
+        for (int i = 0; i < MIN_SAMPLES; i++) {
+            getSlot(id);
+        }
+
+        mockServerClient
+                .when(request().withPath("/internal/slots/" + id).withMethod(HttpMethod.GET), Times.once())
+                .withId("mock_slow")
+                .withPriority(100)
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(data))
+                        .withDelay(Delay.delay(TimeUnit.SECONDS, 5)));
+
+        var start = System.nanoTime();
+        var slot = getSlot(id);
+        var duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assertions.assertEquals(id, slot.getId());
+        Assertions.assertTrue(duration < 4000, "hedge did not win, request took " + duration + "ms");
+
+        var metrics = given()
+                .when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract().asString();
+
+        Assertions.assertTrue(metrics.contains("onecx_product_store_hedging_fired_total{operation=\"getSlot\"} 1.0"));
+        Assertions.assertTrue(metrics.contains("onecx_product_store_hedging_won_total{operation=\"getSlot\"} 1.0"));
+    }
+
+    private SlotDTO getSlot(String id) {
+        return given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .contentType(APPLICATION_JSON)
+                .get("/slots/" + id)
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract().as(SlotDTO.class);
+    }
+
+    public static class HedgingProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.product-store.hedging.enabled", "true",
+                    "onecx.product-store.hedging.min-samples", String.valueOf(MIN_SAMPLES),
+                    "onecx.product-store.hedging.budget", "100");
+        }
+    }
+}
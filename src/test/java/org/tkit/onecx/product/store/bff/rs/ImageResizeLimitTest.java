@@ -0,0 +1,83 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.Response.Status.OK;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Objects;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.HttpHeaders;
+
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.Header;
+import org.tkit.onecx.product.store.bff.rs.controllers.ImagesRestController;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.RefTypeDTO;
+import gen.org.tkit.onecx.product.store.client.model.RefType;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.common.http.TestHTTPEndpoint;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+
+@QuarkusTest
+@TestHTTPEndpoint(ImagesRestController.class)
+@TestProfile(ImageResizeLimitTest.ImageResizeLimitProfile.class)
+class ImageResizeLimitTest extends AbstractTest {
+
+    private static final File FILE = new File(
+            Objects.requireNonNull(ImageResizeLimitTest.class.getResource("/images/Testimage.png")).getFile());
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @Test
+    void getImage_shouldNotDecodeImage_whenMorePixelsThanAllowed() throws IOException {
+        var refId = "resizeLimitImage";
+        byte[] bytesRes = Files.readAllBytes(FILE.toPath());
+
+        mockServerClient.when(request()
+                .withPath("/internal/images/" + refId + "/" + RefType.LOGO)
+                .withMethod(HttpMethod.GET))
+                .withPriority(100)
+                .withId("MOCK_RESIZE_LIMIT")
+                .respond(httpRequest -> response().withStatusCode(OK.getStatusCode())
+                        .withHeaders(new Header(HttpHeaders.CONTENT_TYPE, "image/png"))
+                        .withBody(bytesRes));
+
+        // the original image is returned without resizing
+        var res = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .pathParam("refId", refId)
+                .pathParam("refType", RefTypeDTO.LOGO)
+                .queryParam("w", 1)
+                .get()
+                .then()
+                .statusCode(OK.getStatusCode())
+                .extract().body().asByteArray();
+
+        assertThat(res).isEqualTo(bytesRes);
+        mockServerClient.clear("MOCK_RESIZE_LIMIT");
+    }
+
+    public static class ImageResizeLimitProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.product-store.images.resize.max-pixels", "4");
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.Response.Status.*;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.util.Map;
+import java.util.Random;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.HttpHeaders;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.Header;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+import org.mockserver.verify.VerificationTimes;
+import org.tkit.onecx.product.store.bff.rs.controllers.ImagesRestController;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ImageInfoDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.RefTypeDTO;
+import gen.org.tkit.onecx.product.store.client.model.RefType;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.common.http.TestHTTPEndpoint;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+
+@QuarkusTest
+@TestHTTPEndpoint(ImagesRestController.class)
+@TestProfile(ImagesCacheTest.ImagesCacheProfile.class)
+class ImagesCacheTest extends AbstractTest {
+
+    private static final String MEDIA_TYPE_IMAGE_PNG = "image/png";
+
+    static final String MOCK_ID = "MOCK";
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @BeforeEach
+    void resetExpectation() {
+        try {
+            mockServerClient.clear(MOCK_ID);
+        } catch (Exception _) {
+            //  mockId not existing
+        }
+    }
+
+    @Test
+    void getImage_shouldBeLoadedOnlyOnce() {
+        var refId = "cachedImage";
+        byte[] bytesRes = mockImage(refId);
+
+        for (int i = 0; i < 3; i++) {
+            var res = getImage(refId);
+            assertThat(res).isEqualTo(bytesRes);
+        }
+
+        mockServerClient.verify(request()
+                .withPath("/internal/images/" + refId + "/" + RefType.LOGO)
+                .withMethod(HttpMethod.GET), VerificationTimes.once());
+    }
+
+    @Test
+    void getImage_shouldBeCachedPerTenant() {
+        var refId = "cachedImageTenant";
+        byte[] bytesRes = mockImage(refId);
+
+        for (var tenant : new String[] { "tenant-1", "tenant-2", "tenant-1", "tenant-2" }) {
+            var res = given()
+                    .when()
+                    .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                    .header(APM_HEADER_PARAM, ADMIN)
+                    .header(TENANT_HEADER, tenant)
+                    .pathParam("refId", refId)
+                    .pathParam("refType", RefTypeDTO.LOGO)
+                    .get()
+                    .then()
+                    .statusCode(OK.getStatusCode())
+                    .extract().body().asByteArray();
+            assertThat(res).isEqualTo(bytesRes);
+        }
+
+        // each tenant loads its own image once
+        mockServerClient.verify(request()
+                .withPath("/internal/images/" + refId + "/" + RefType.LOGO)
+                .withMethod(HttpMethod.GET), VerificationTimes.exactly(2));
+    }
+
+    @Test
+    void getImage_shouldReturnNotModifiedFromCache() {
+        var refId = "cachedImageEtag";
+        mockImage(refId);
+
+        var etag = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .pathParam("refId", refId)
+                .pathParam("refType", RefTypeDTO.LOGO)
+                .get()
+                .then()
+                .statusCode(OK.getStatusCode())
+                .extract().header(HttpHeaders.ETAG);
+
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .pathParam("refId", refId)
+                .pathParam("refType", RefTypeDTO.LOGO)
+                .get()
+                .then()
+                .statusCode(NOT_MODIFIED.getStatusCode());
+
+        mockServerClient.verify(request()
+                .withPath("/internal/images/" + refId + "/" + RefType.LOGO)
+                .withMethod(HttpMethod.GET), VerificationTimes.once());
+    }
+
+    @Test
+    void getImage_shouldComputeStrongEtag_whenUpstreamEtagWeak() {
+        var refId = "cachedImageWeakEtag";
+        mockServerClient.when(request()
+                .withPath("/internal/images/" + refId + "/" + RefType.LOGO)
+                .withMethod(HttpMethod.GET))
+                .withPriority(100)
+                .withId(MOCK_ID)
+                .respond(httpRequest -> response().withStatusCode(OK.getStatusCode())
+                        .withHeaders(new Header(HttpHeaders.CONTENT_TYPE, MEDIA_TYPE_IMAGE_PNG),
+                                new Header(HttpHeaders.ETAG, "W/\"upstream-weak\""))
+                        .withBody(new byte[] { 1, 2, 3, 4 }));
+
+        var etag = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .pathParam("refId", refId)
+                .pathParam("refType", RefTypeDTO.LOGO)
+                .get()
+                .then()
+                .statusCode(OK.getStatusCode())
+                .extract().header(HttpHeaders.ETAG);
+
+        assertThat(etag).isNotNull().startsWith("\"").isNotEqualTo("\"upstream-weak\"");
+    }
+
+    @Test
+    void uploadImage_shouldInvalidateCache() {
+        var refId = "cachedImageUpload";
+        mockImage(refId);
+
+        ImageInfoDTO imageInfoDTO = new ImageInfoDTO();
+        imageInfoDTO.setId("11-111");
+        mockServerClient
+                .when(request().withPath("/internal/images/" + refId + "/" + RefType.LOGO).withMethod(HttpMethod.POST))
+                .withPriority(100)
+                .withId("MOCK_UPLOAD")
+                .respond(httpRequest -> response().withStatusCode(CREATED.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(imageInfoDTO)));
+
+        getImage(refId);
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .pathParam("refId", refId)
+                .pathParam("refType", RefTypeDTO.LOGO)
+                .body(new byte[] { 1, 2, 3 })
+                .contentType(MEDIA_TYPE_IMAGE_PNG)
+                .post()
+                .then()
+                .statusCode(CREATED.getStatusCode());
+        getImage(refId);
+
+        mockServerClient.verify(request()
+                .withPath("/internal/images/" + refId + "/" + RefType.LOGO)
+                .withMethod(HttpMethod.GET), VerificationTimes.exactly(2));
+        mockServerClient.clear("MOCK_UPLOAD");
+    }
+
+    @Test
+    void deleteImage_shouldInvalidateCache() {
+        var refId = "cachedImageDelete";
+        mockImage(refId);
+        mockServerClient
+                .when(request().withPath("/internal/images/" + refId + "/" + RefType.LOGO).withMethod(HttpMethod.DELETE))
+                .withPriority(100)
+                .withId("MOCK_DELETE")
+                .respond(httpRequest -> response().withStatusCode(NO_CONTENT.getStatusCode()));
+
+        getImage(refId);
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .pathParam("refId", refId)
+                .pathParam("refType", RefTypeDTO.LOGO)
+                .delete()
+                .then()
+                .statusCode(NO_CONTENT.getStatusCode());
+        getImage(refId);
+
+        mockServerClient.verify(request()
+                .withPath("/internal/images/" + refId + "/" + RefType.LOGO)
+                .withMethod(HttpMethod.GET), VerificationTimes.exactly(2));
+        mockServerClient.clear("MOCK_DELETE");
+    }
+
+    private byte[] mockImage(String refId) {
+        byte[] bytesRes = new byte[4096];
+        new Random().nextBytes(bytesRes);
+        mockServerClient.when(request()
+                .withPath("/internal/images/" + refId + "/" + RefType.LOGO)
+                .withMethod(HttpMethod.GET))
+                .withPriority(100)
+                .withId(MOCK_ID)
+                .respond(httpRequest -> response().withStatusCode(OK.getStatusCode())
+                        .withHeaders(new Header(HttpHeaders.CONTENT_TYPE, MEDIA_TYPE_IMAGE_PNG))
+                        .withBody(bytesRes));
+        return bytesRes;
+    }
+
+    private byte[] getImage(String refId) {
+        return given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .pathParam("refId", refId)
+                .pathParam("refType", RefTypeDTO.LOGO)
+                .get()
+                .then()
+                .statusCode(OK.getStatusCode())
+                .header(HttpHeaders.CONTENT_TYPE, MEDIA_TYPE_IMAGE_PNG)
+                .extract().body().asByteArray();
+    }
+
+    public static class ImagesCacheProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.product-store.images.cache.enabled", "true");
+        }
+    }
+}
@@ -7,10 +7,15 @@ import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockserver.model.HttpRequest.request;
 import static org.mockserver.model.HttpResponse.response;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Objects;
 import java.util.Random;
 
+import javax.imageio.ImageIO;
+
 import jakarta.ws.rs.HttpMethod;
 import jakarta.ws.rs.core.HttpHeaders;
 
@@ -21,6 +26,7 @@ import org.mockserver.client.MockServerClient;
 import org.mockserver.model.Header;
 import org.mockserver.model.JsonBody;
 import org.mockserver.model.MediaType;
+import org.mockserver.verify.VerificationTimes;
 import org.tkit.onecx.product.store.bff.rs.controllers.ImagesRestController;
 import org.tkit.quarkus.log.cdi.LogService;
 
@@ -132,6 +138,228 @@ class ImagesRestControllerTest extends AbstractTest {
         assertThat(res).isNotNull().isNotEmpty();
     }
 
+    @Test
+    void getImage_shouldStreamBody() {
+
+        var refId = "streamedImage";
+        var refType = RefTypeDTO.LOGO;
+        byte[] bytesRes = new byte[512 * 1024];
+        new Random().nextBytes(bytesRes);
+
+        mockServerClient.when(request()
+                .withPath("/internal/images/" + refId + "/" + RefType.LOGO)
+                .withMethod(HttpMethod.GET))
+                .withPriority(100)
+                .withId(MOCK_ID)
+                .respond(httpRequest -> response().withStatusCode(OK.getStatusCode())
+                        .withHeaders(
+                                new Header(HttpHeaders.CONTENT_TYPE, MEDIA_TYPE_IMAGE_PNG))
+                        .withBody(bytesRes));
+
+        var res = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .pathParam("refId", refId)
+                .pathParam("refType", refType)
+                .get()
+                .then()
+                .statusCode(OK.getStatusCode())
+                .header(HttpHeaders.CONTENT_TYPE, MEDIA_TYPE_IMAGE_PNG)
+                .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(bytesRes.length))
+                .extract().body().asByteArray();
+
+        assertThat(res).isEqualTo(bytesRes);
+    }
+
+    @Test
+    void getImage_shouldReturnNotModified_whenEtagMatches() {
+
+        var refId = "etagImage";
+        var refType = RefTypeDTO.LOGO;
+        byte[] bytesRes = new byte[1024];
+        new Random().nextBytes(bytesRes);
+
+        // the images cache is disabled, the image is streamed with the upstream entity tag
+        mockServerClient.when(request()
+                .withPath("/internal/images/" + refId + "/" + RefType.LOGO)
+                .withMethod(HttpMethod.GET))
+                .withPriority(100)
+                .withId(MOCK_ID)
+                .respond(httpRequest -> response().withStatusCode(OK.getStatusCode())
+                        .withHeaders(
+                                new Header(HttpHeaders.CONTENT_TYPE, MEDIA_TYPE_IMAGE_PNG),
+                                new Header(HttpHeaders.ETAG, "\"etag-image-1\""))
+                        .withBody(bytesRes));
+
+        var etag = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .pathParam("refId", refId)
+                .pathParam("refType", refType)
+                .get()
+                .then()
+                .statusCode(OK.getStatusCode())
+                .extract().header(HttpHeaders.ETAG);
+
+        assertThat(etag).isNotNull().startsWith("\"");
+
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .pathParam("refId", refId)
+                .pathParam("refType", refType)
+                .get()
+                .then()
+                .statusCode(NOT_MODIFIED.getStatusCode())
+                .header(HttpHeaders.ETAG, etag);
+
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"other\"")
+                .pathParam("refId", refId)
+                .pathParam("refType", refType)
+                .get()
+                .then()
+                .statusCode(OK.getStatusCode())
+                .header(HttpHeaders.ETAG, etag);
+    }
+
+    @Test
+    void getImage_shouldForwardUpstreamEtag() {
+
+        var refId = "upstreamEtagImage";
+        var refType = RefTypeDTO.LOGO;
+        var etag = "\"upstream-1\"";
+        byte[] bytesRes = new byte[] { 1, 2, 3, 4 };
+
+        mockServerClient.when(request()
+                .withPath("/internal/images/" + refId + "/" + RefType.LOGO)
+                .withMethod(HttpMethod.GET))
+                .withPriority(100)
+                .withId(MOCK_ID)
+                .respond(httpRequest -> response().withStatusCode(OK.getStatusCode())
+                        .withHeaders(
+                                new Header(HttpHeaders.CONTENT_TYPE, MEDIA_TYPE_IMAGE_PNG),
+                                new Header(HttpHeaders.ETAG, etag))
+                        .withBody(bytesRes));
+
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(HttpHeaders.IF_NONE_MATCH, "W/" + etag)
+                .pathParam("refId", refId)
+                .pathParam("refType", refType)
+                .get()
+                .then()
+                .statusCode(NOT_MODIFIED.getStatusCode())
+                .header(HttpHeaders.ETAG, etag);
+    }
+
+    @Test
+    void getImage_shouldDropWeakUpstreamEtag() {
+
+        var refId = "weakEtagImage";
+        var refType = RefTypeDTO.LOGO;
+        byte[] bytesRes = new byte[] { 1, 2, 3, 4 };
+
+        mockServerClient.when(request()
+                .withPath("/internal/images/" + refId + "/" + RefType.LOGO)
+                .withMethod(HttpMethod.GET))
+                .withPriority(100)
+                .withId(MOCK_ID)
+                .respond(httpRequest -> response().withStatusCode(OK.getStatusCode())
+                        .withHeaders(
+                                new Header(HttpHeaders.CONTENT_TYPE, MEDIA_TYPE_IMAGE_PNG),
+                                new Header(HttpHeaders.ETAG, "W/\"upstream-weak\""))
+                        .withBody(bytesRes));
+
+        var response = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"upstream-weak\"")
+                .pathParam("refId", refId)
+                .pathParam("refType", refType)
+                .get()
+                .then()
+                .statusCode(OK.getStatusCode())
+                .extract();
+
+        assertThat(response.header(HttpHeaders.ETAG)).isNull();
+        assertThat(response.body().asByteArray()).isEqualTo(bytesRes);
+    }
+
+    @Test
+    void getImage_shouldReturnResizedVariant() throws IOException {
+
+        var refId = "resizedImage";
+        byte[] bytesRes = Files.readAllBytes(FILE.toPath());
+        var original = ImageIO.read(FILE);
+
+        mockServerClient.when(request()
+                .withPath("/internal/images/" + refId + "/" + RefType.LOGO)
+                .withMethod(HttpMethod.GET))
+                .withPriority(100)
+                .withId(MOCK_ID)
+                .respond(httpRequest -> response().withStatusCode(OK.getStatusCode())
+                        .withHeaders(
+                                new Header(HttpHeaders.CONTENT_TYPE, MEDIA_TYPE_IMAGE_PNG))
+                        .withBody(bytesRes));
+
+        int width = Math.max(1, original.getWidth() / 4);
+        var res = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .pathParam("refId", refId)
+                .pathParam("refType", RefTypeDTO.LOGO)
+                .queryParam("w", width)
+                .get()
+                .then()
+                .statusCode(OK.getStatusCode())
+                .header(HttpHeaders.CONTENT_TYPE, MEDIA_TYPE_IMAGE_PNG)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .extract().body().asByteArray();
+
+        var resized = ImageIO.read(new ByteArrayInputStream(res));
+        assertThat(resized.getWidth()).isEqualTo(width);
+
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .pathParam("refId", refId)
+                .pathParam("refType", RefTypeDTO.LOGO)
+                .queryParam("w", width)
+                .queryParam("format", "jpeg")
+                .get()
+                .then()
+                .statusCode(OK.getStatusCode())
+                .header(HttpHeaders.CONTENT_TYPE, "image/jpeg");
+    }
+
+    @Test
+    void getImage_shouldReturnBadRequest_whenVariantSizeInvalid() {
+
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .pathParam("refId", "resizedImage")
+                .pathParam("refType", RefTypeDTO.LOGO)
+                .queryParam("w", 0)
+                .get()
+                .then()
+                .statusCode(BAD_REQUEST.getStatusCode());
+    }
+
     @Test
     void getImage_shouldReturnBadRequest() {
 
@@ -367,6 +595,65 @@ class ImagesRestControllerTest extends AbstractTest {
                 .statusCode(NO_CONTENT.getStatusCode());
     }
 
+    @Test
+    void uploadImage_shouldRejectImage_whenBiggerThanMaxSize() {
+
+        var refId = "themeTooLarge";
+
+        byte[] body = new byte[5 * 1024 * 1024];
+        new Random().nextBytes(body);
+
+        mockServerClient
+                .when(request().withPath("/internal/images/" + refId + "/" + RefType.LOGO).withMethod(HttpMethod.POST))
+                .withPriority(100)
+                .withId(MOCK_ID)
+                .respond(httpRequest -> response().withStatusCode(CREATED.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new ImageInfoDTO().id("11-111"))));
+
+        var exception = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .pathParam("refId", refId)
+                .pathParam("refType", RefTypeDTO.LOGO)
+                .when()
+                .body(body)
+                .contentType(MEDIA_TYPE_IMAGE_PNG)
+                .post()
+                .then()
+                .statusCode(REQUEST_ENTITY_TOO_LARGE.getStatusCode())
+                .contentType(APPLICATION_JSON)
+                .extract().as(ProblemDetailResponseDTO.class);
+
+        assertThat(exception.getErrorCode()).isEqualTo("IMAGE_TOO_LARGE");
+        mockServerClient.verify(request().withPath("/internal/images/" + refId + "/" + RefType.LOGO)
+                .withMethod(HttpMethod.POST), VerificationTimes.never());
+    }
+
+    @Test
+    void uploadImage_shouldRejectImage_whenContentTypeNotAllowed() {
+
+        var refId = "themeContentType";
+
+        var exception = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .pathParam("refId", refId)
+                .pathParam("refType", RefTypeDTO.LOGO)
+                .when()
+                .body(new byte[] { 1, 2, 3 })
+                .contentType("image/tiff")
+                .post()
+                .then()
+                .statusCode(BAD_REQUEST.getStatusCode())
+                .contentType(APPLICATION_JSON)
+                .extract().as(ProblemDetailResponseDTO.class);
+
+        assertThat(exception.getErrorCode()).isEqualTo("IMAGE_CONTENT_TYPE");
+    }
+
     @Test
     void testMaxUploadSize() {
 
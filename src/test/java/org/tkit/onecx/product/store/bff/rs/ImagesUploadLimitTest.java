@@ -0,0 +1,127 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static jakarta.ws.rs.core.Response.Status.CREATED;
+import static jakarta.ws.rs.core.Response.Status.REQUEST_ENTITY_TOO_LARGE;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.Random;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.HttpHeaders;
+
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+import org.mockserver.verify.VerificationTimes;
+import org.tkit.onecx.product.store.bff.rs.controllers.ImagesRestController;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ImageInfoDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.RefTypeDTO;
+import gen.org.tkit.onecx.product.store.client.model.RefType;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.common.http.TestHTTPEndpoint;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+
+@QuarkusTest
+@TestProfile(ImagesUploadLimitTest.ImagesUploadLimitProfile.class)
+class ImagesUploadLimitTest extends AbstractTest {
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @TestHTTPEndpoint(ImagesRestController.class)
+    @TestHTTPResource
+    URL imagesUrl;
+
+    @Test
+    void uploadImage_shouldRejectChunkedImage_whenBiggerThanMaxSize() throws Exception {
+        var refId = "chunkedTooLarge";
+        byte[] body = new byte[64 * 1024];
+        new Random().nextBytes(body);
+
+        mockServerClient
+                .when(request().withPath("/internal/images/" + refId + "/" + RefType.LOGO).withMethod(HttpMethod.POST))
+                .withPriority(100)
+                .withId("MOCK_CHUNKED")
+                .respond(httpRequest -> response().withStatusCode(CREATED.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new ImageInfoDTO().id("11-111"))));
+
+        HttpResponse<String> response;
+        try (var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            response = client.send(chunkedUpload(refId, body), HttpResponse.BodyHandlers.ofString());
+        }
+
+        assertThat(response.statusCode()).isEqualTo(REQUEST_ENTITY_TOO_LARGE.getStatusCode());
+        assertThat(response.body()).contains("IMAGE_TOO_LARGE");
+        mockServerClient.clear("MOCK_CHUNKED");
+    }
+
+    @Test
+    void uploadImage_shouldSendSize_whenChunkedImageWithinMaxSize() throws Exception {
+        var refId = "chunkedWithinLimit";
+        byte[] body = new byte[8 * 1024];
+        new Random().nextBytes(body);
+
+        mockServerClient
+                .when(request().withPath("/internal/images/" + refId + "/" + RefType.LOGO).withMethod(HttpMethod.POST))
+                .withPriority(100)
+                .withId("MOCK_CHUNKED_OK")
+                .respond(httpRequest -> response().withStatusCode(CREATED.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new ImageInfoDTO().id("11-112"))));
+
+        HttpResponse<String> response;
+        try (var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            response = client.send(chunkedUpload(refId, body), HttpResponse.BodyHandlers.ofString());
+        }
+
+        assertThat(response.statusCode()).isEqualTo(CREATED.getStatusCode());
+        mockServerClient.verify(request().withPath("/internal/images/" + refId + "/" + RefType.LOGO)
+                .withMethod(HttpMethod.POST)
+                .withHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(body.length)), VerificationTimes.once());
+        mockServerClient.clear("MOCK_CHUNKED_OK");
+    }
+
+    private HttpRequest chunkedUpload(String refId, byte[] body) {
+        // the body has no known length, so it is sent without Content-Length in chunks
+        return HttpRequest.newBuilder(imageUri(refId))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(HttpHeaders.CONTENT_TYPE, "image/png")
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(body)))
+                .build();
+    }
+
+    private URI imageUri(String refId) {
+        var base = imagesUrl.toString();
+        if (base.endsWith("/")) {
+            base = base.substring(0, base.length() - 1);
+        }
+        return URI.create(base + "/" + refId + "/" + RefTypeDTO.LOGO);
+    }
+
+    public static class ImagesUploadLimitProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.product-store.images.upload.max-size", "16K");
+        }
+    }
+}
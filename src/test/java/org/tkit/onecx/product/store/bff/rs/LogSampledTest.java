@@ -0,0 +1,32 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+@QuarkusTest
+@TestProfile(LogSampledTest.SampledProfile.class)
+class LogSampledTest extends AbstractLogSamplingTest {
+
+    @Test
+    void getImage_shouldLogParameters_whenSampled() {
+        var messages = getImage("log-sampled");
+
+        Assertions.assertTrue(messages.stream().anyMatch(message -> message.contains("log-sampled")),
+                messages::toString);
+        Assertions.assertTrue(messages.stream().anyMatch(message -> message.contains("logo")), messages::toString);
+    }
+
+    public static class SampledProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.product-store.log.read-sample-rate", "1");
+        }
+    }
+}
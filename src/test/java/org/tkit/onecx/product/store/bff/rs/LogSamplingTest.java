@@ -0,0 +1,33 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+@QuarkusTest
+@TestProfile(LogSamplingTest.NotSampledProfile.class)
+class LogSamplingTest extends AbstractLogSamplingTest {
+
+    @Test
+    void getImage_shouldNotLogParameters_whenNotSampled() {
+        var messages = getImage("log-not-sampled");
+
+        Assertions.assertFalse(messages.isEmpty());
+        Assertions.assertTrue(messages.stream().noneMatch(message -> message.contains("log-not-sampled")),
+                messages::toString);
+        Assertions.assertTrue(messages.stream().noneMatch(message -> message.contains("logo")), messages::toString);
+    }
+
+    public static class NotSampledProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.product-store.log.read-sample-rate", "0");
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.Delay;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gen.org.tkit.onecx.product.store.client.model.Microfrontend;
+import gen.org.tkit.onecx.product.store.client.model.Microservice;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+
+/**
+ * Load comparison of the two execution models with a worker pool of {@value #WORKER_THREADS} threads.
+ * The same load of {@value #REQUESTS} requests from {@value #CLIENTS} concurrent clients is sent to
+ * a proxy which runs on the event loop ({@code GET /microservices/{id}}) and to a proxy of the same
+ * shape which holds a worker thread while it waits ({@code GET /microfrontends/{id}}). Each
+ * downstream call takes {@value #DELAY_MILLIS} ms, so the blocking model cannot finish the load
+ * faster than {@code REQUESTS / WORKER_THREADS * DELAY_MILLIS}.
+ */
+@QuarkusTest
+@TestProfile(NonBlockingTest.NonBlockingProfile.class)
+class NonBlockingTest extends AbstractTest {
+
+    private static final Logger log = LoggerFactory.getLogger(NonBlockingTest.class);
+
+    static final int WORKER_THREADS = 2;
+
+    static final int CLIENTS = 20;
+
+    static final int REQUESTS = 40;
+
+    static final long DELAY_MILLIS = 250;
+
+    static final Duration BLOCKING_MINIMUM = Duration.ofMillis(REQUESTS / WORKER_THREADS * DELAY_MILLIS);
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @AfterEach
+    void clearMocks() {
+        for (var id : List.of("mock_load_ms", "mock_load_mfe")) {
+            try {
+                mockServerClient.clear(id);
+            } catch (Exception _) {
+                //  mockId not existing
+            }
+        }
+    }
+
+    @Test
+    void loadComparison_nonBlockingShouldNotBeLimitedByWorkerPool() throws Exception {
+        mockServerClient
+                .when(request().withPath("/internal/microservices/load").withMethod(HttpMethod.GET))
+                .withId("mock_load_ms")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new Microservice().id("load")))
+                        .withDelay(Delay.delay(TimeUnit.MILLISECONDS, DELAY_MILLIS)));
+        mockServerClient
+                .when(request().withPath("/internal/microfrontends/load").withMethod(HttpMethod.GET))
+                .withId("mock_load_mfe")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new Microfrontend().id("load")))
+                        .withDelay(Delay.delay(TimeUnit.MILLISECONDS, DELAY_MILLIS)));
+
+        var token = keycloakClient.getAccessToken(ADMIN);
+        var nonBlocking = load(() -> get(token, "/microservices/load"));
+        var blocking = load(() -> get(token, "/microfrontends/load"));
+        log.info("Load comparison of {} requests from {} clients, non-blocking: {}, blocking: {}",
+                REQUESTS, CLIENTS, nonBlocking, blocking);
+
+        Assertions.assertTrue(blocking.elapsed().compareTo(BLOCKING_MINIMUM) >= 0,
+                "blocking model: " + blocking);
+        Assertions.assertTrue(nonBlocking.elapsed().compareTo(BLOCKING_MINIMUM.dividedBy(2)) < 0,
+                "non-blocking model: " + nonBlocking);
+        Assertions.assertTrue(nonBlocking.throughput() > 2 * blocking.throughput(),
+                "non-blocking: " + nonBlocking + ", blocking: " + blocking);
+    }
+
+    private int get(String token, String path) {
+        return given()
+                .when()
+                .auth().oauth2(token)
+                .header(APM_HEADER_PARAM, ADMIN)
+                .get(path)
+                .then()
+                .extract().statusCode();
+    }
+
+    /**
+     * Sends {@value #REQUESTS} requests from {@value #CLIENTS} concurrent clients and measures the
+     * latency of every request.
+     */
+    private LoadResult load(Callable<Integer> call) throws Exception {
+        var calls = new ArrayList<Callable<Long>>();
+        for (int i = 0; i < REQUESTS; i++) {
+            calls.add(() -> {
+                var start = System.nanoTime();
+                Assertions.assertEquals(Response.Status.OK.getStatusCode(), call.call());
+                return System.nanoTime() - start;
+            });
+        }
+        var latencies = new ArrayList<Long>();
+        var start = System.nanoTime();
+        try (var executor = Executors.newFixedThreadPool(CLIENTS)) {
+            for (var result : executor.invokeAll(calls)) {
+                latencies.add(result.get());
+            }
+        }
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+        latencies.sort(null);
+        return new LoadResult(elapsed, Duration.ofNanos(latencies.get(latencies.size() / 2)),
+                Duration.ofNanos(latencies.get(latencies.size() * 95 / 100)));
+    }
+
+    record LoadResult(Duration elapsed, Duration p50, Duration p95) {
+
+        double throughput() {
+            return REQUESTS * 1000.0 / Math.max(1, elapsed.toMillis());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d ms, %.1f req/s, p50 %d ms, p95 %d ms", elapsed.toMillis(), throughput(),
+                    p50.toMillis(), p95.toMillis());
+        }
+    }
+
+    public static class NonBlockingProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("quarkus.thread-pool.core-threads", "1",
+                    "quarkus.thread-pool.max-threads", String.valueOf(WORKER_THREADS));
+        }
+    }
+}
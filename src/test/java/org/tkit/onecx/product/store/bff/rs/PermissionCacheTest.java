@@ -0,0 +1,152 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.ClearType;
+import org.mockserver.model.Delay;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+import org.mockserver.verify.VerificationTimes;
+import org.tkit.onecx.product.store.bff.rs.controllers.SlotsRestController;
+
+import gen.org.tkit.onecx.product.store.client.model.Slot;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.common.http.TestHTTPEndpoint;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+import io.restassured.response.ExtractableResponse;
+
+@QuarkusTest
+@TestHTTPEndpoint(SlotsRestController.class)
+@TestProfile(PermissionCacheTest.PermissionCacheProfile.class)
+class PermissionCacheTest extends AbstractTest {
+
+    private static final String PERMISSIONS_PATH = "/v1/permissions/user/applications/onecx-product-store-bff";
+
+    static final String MOCK_ID = "MOCK";
+
+    static final String MOCK_PERMISSIONS_ID = "MOCK_PERMISSIONS";
+
+    static final String BURST_PRINCIPAL = "burst";
+
+    static final int BURST_REQUESTS = 10;
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @BeforeEach
+    void resetExpectation() {
+        for (var id : List.of(MOCK_ID, MOCK_PERMISSIONS_ID)) {
+            try {
+                mockServerClient.clear(id);
+            } catch (Exception _) {
+                //  mockId not existing
+            }
+        }
+        mockServerClient.clear(request().withPath(PERMISSIONS_PATH), ClearType.LOG);
+    }
+
+    @Test
+    void permissions_shouldBeResolvedOncePerPrincipal() {
+        var id = "permissionsSlot";
+        mockSlot(id);
+
+        for (int i = 0; i < 3; i++) {
+            getSlot(id, ADMIN);
+            getSlot(id, USER);
+        }
+
+        mockServerClient.verify(request().withPath(PERMISSIONS_PATH).withMethod(HttpMethod.GET)
+                .withHeader(APM_HEADER_PARAM, ADMIN), VerificationTimes.once());
+        mockServerClient.verify(request().withPath(PERMISSIONS_PATH).withMethod(HttpMethod.GET)
+                .withHeader(APM_HEADER_PARAM, USER), VerificationTimes.once());
+    }
+
+    @Test
+    void permissions_shouldBeResolvedOnceForConcurrentBurst() throws Exception {
+        var id = "permissionsBurstSlot";
+        mockSlot(id);
+        mockServerClient
+                .when(request().withPath(PERMISSIONS_PATH).withMethod(HttpMethod.GET)
+                        .withHeader(APM_HEADER_PARAM, BURST_PRINCIPAL))
+                .withPriority(100)
+                .withId(MOCK_PERMISSIONS_ID)
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(Map.of("appId", "onecx-product-store-bff",
+                                "permissions", Map.of("slot", List.of("read")))))
+                        .withDelay(Delay.delay(TimeUnit.MILLISECONDS, 500)));
+
+        var token = keycloakClient.getAccessToken(ADMIN);
+        Callable<ExtractableResponse<?>> call = () -> given()
+                .when()
+                .auth().oauth2(token)
+                .header(APM_HEADER_PARAM, BURST_PRINCIPAL)
+                .contentType(APPLICATION_JSON)
+                .get(id)
+                .then()
+                .extract();
+        var calls = new ArrayList<Callable<ExtractableResponse<?>>>();
+        for (int i = 0; i < BURST_REQUESTS; i++) {
+            calls.add(call);
+        }
+        try (var executor = Executors.newFixedThreadPool(BURST_REQUESTS)) {
+            for (var result : executor.invokeAll(calls)) {
+                Assertions.assertEquals(Response.Status.OK.getStatusCode(), result.get().statusCode());
+            }
+        }
+
+        // the requests of the burst wait for the first lookup instead of calling the service
+        mockServerClient.verify(request().withPath(PERMISSIONS_PATH).withMethod(HttpMethod.GET)
+                .withHeader(APM_HEADER_PARAM, BURST_PRINCIPAL), VerificationTimes.once());
+    }
+
+    private void mockSlot(String id) {
+        mockServerClient
+                .when(request().withPath("/internal/slots/" + id).withMethod(HttpMethod.GET))
+                .withId(MOCK_ID)
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new Slot().id(id).appId("app1").name("slot1"))));
+    }
+
+    private void getSlot(String id, String principal) {
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(principal))
+                .header(APM_HEADER_PARAM, principal)
+                .contentType(APPLICATION_JSON)
+                .get(id)
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode());
+    }
+
+    public static class PermissionCacheProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.product-store.permissions.cache.enabled", "true");
+        }
+    }
+}
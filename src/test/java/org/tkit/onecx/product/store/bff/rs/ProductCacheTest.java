@@ -0,0 +1,197 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+import org.mockserver.verify.VerificationTimes;
+import org.tkit.onecx.product.store.bff.rs.cache.InMemorySharedCacheTier;
+import org.tkit.onecx.product.store.bff.rs.controllers.ProductsRestController;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProductDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProductNamesRequestDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProductNamesResultDTO;
+import gen.org.tkit.onecx.product.store.client.model.Product;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.common.http.TestHTTPEndpoint;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+
+@QuarkusTest
+@TestHTTPEndpoint(ProductsRestController.class)
+@TestProfile(ProductCacheTest.ProductCacheProfile.class)
+class ProductCacheTest extends AbstractTest {
+
+    private static final String PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH = "/internal/products";
+
+    static final String MOCK_ID = "MOCK";
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @Inject
+    InMemorySharedCacheTier sharedTier;
+
+    @BeforeEach
+    void resetExpectation() {
+        try {
+            mockServerClient.clear(MOCK_ID);
+        } catch (Exception _) {
+            //  mockId not existing
+        }
+    }
+
+    @Test
+    void getProduct_shouldBeLoadedOnlyOnce() {
+        var id = "cachedProduct";
+        mockProduct(id);
+
+        for (int i = 0; i < 3; i++) {
+            var product = getProduct(id);
+            Assertions.assertEquals(id, product.getId());
+        }
+
+        mockServerClient.verify(request()
+                .withPath(PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH + "/" + id)
+                .withMethod(HttpMethod.GET), VerificationTimes.once());
+        Assertions.assertTrue(sharedTier.size() > 0);
+    }
+
+    @Test
+    void getProduct_shouldCacheProductsPerTenant() {
+        var id = "cachedTenantProduct";
+        mockProduct(id);
+
+        for (var tenant : List.of("tenant-1", "tenant-2", "tenant-1", "tenant-2")) {
+            var product = getProduct(id, tenant);
+            Assertions.assertEquals(id, product.getId());
+        }
+
+        mockServerClient.verify(request()
+                .withPath(PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH + "/" + id)
+                .withMethod(HttpMethod.GET), VerificationTimes.exactly(2));
+    }
+
+    @Test
+    void getProductsByNames_shouldCacheProductsPerTenant() {
+        var name = "cachedBatchProduct";
+        var data = new Product().id(name).name(name).basePath("/" + name);
+        mockServerClient
+                .when(request().withPath(PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH + "/name/" + name)
+                        .withMethod(HttpMethod.GET))
+                .withPriority(100)
+                .withId(MOCK_ID)
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(data)));
+
+        for (var tenant : List.of("tenant-1", "tenant-2", "tenant-1", "tenant-2")) {
+            var result = given()
+                    .when()
+                    .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                    .header(APM_HEADER_PARAM, ADMIN)
+                    .header(TENANT_HEADER, tenant)
+                    .contentType(APPLICATION_JSON)
+                    .body(new ProductNamesRequestDTO().names(List.of(name)))
+                    .post("/name/batch")
+                    .then()
+                    .statusCode(Response.Status.OK.getStatusCode())
+                    .extract().as(ProductNamesResultDTO.class);
+            Assertions.assertTrue(result.getProducts().get(name).getFound());
+        }
+
+        // the names are loaded on other threads, the entries must still be cached per tenant
+        mockServerClient.verify(request()
+                .withPath(PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH + "/name/" + name)
+                .withMethod(HttpMethod.GET), VerificationTimes.exactly(2));
+    }
+
+    @Test
+    void deleteProduct_shouldInvalidateCache() {
+        var id = "cachedProductDelete";
+        mockProduct(id);
+        mockServerClient
+                .when(request().withPath(PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH + "/" + id)
+                        .withMethod(HttpMethod.DELETE))
+                .withPriority(100)
+                .withId("MOCK_DELETE")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.NO_CONTENT.getStatusCode()));
+
+        getProduct(id);
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .delete(id)
+                .then()
+                .statusCode(Response.Status.NO_CONTENT.getStatusCode());
+        getProduct(id);
+
+        mockServerClient.verify(request()
+                .withPath(PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH + "/" + id)
+                .withMethod(HttpMethod.GET), VerificationTimes.exactly(2));
+        mockServerClient.clear("MOCK_DELETE");
+    }
+
+    private void mockProduct(String id) {
+        var data = new Product().id(id).name("product-" + id).basePath("/" + id);
+        mockServerClient
+                .when(request().withPath(PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH + "/" + id)
+                        .withMethod(HttpMethod.GET))
+                .withPriority(100)
+                .withId(MOCK_ID)
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(data)));
+    }
+
+    private ProductDTO getProduct(String id) {
+        return getProduct(id, TENANT);
+    }
+
+    private ProductDTO getProduct(String id, String tenant) {
+        return given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, tenant)
+                .contentType(APPLICATION_JSON)
+                .get(id)
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract().as(ProductDTO.class);
+    }
+
+    public static class ProductCacheProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.product-store.products.cache.enabled", "true");
+        }
+
+        @Override
+        public Set<Class<?>> getEnabledAlternatives() {
+            return Set.of(InMemorySharedCacheTier.class);
+        }
+    }
+}
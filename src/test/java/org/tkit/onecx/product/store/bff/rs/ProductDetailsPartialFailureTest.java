@@ -0,0 +1,107 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.util.List;
+import java.util.Map;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+import org.tkit.onecx.product.store.bff.rs.controllers.ProductsRestController;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProductDetailsCriteriaDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProductDetailsDTO;
+import gen.org.tkit.onecx.product.store.client.model.*;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.common.http.TestHTTPEndpoint;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+
+@QuarkusTest
+@TestHTTPEndpoint(ProductsRestController.class)
+@TestProfile(ProductDetailsPartialFailureTest.PartialFailureProfile.class)
+class ProductDetailsPartialFailureTest extends AbstractTest {
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @Test
+    void getProductDetailsByName_shouldReturnPartialResult_whenOneSearchFails() {
+        MicrofrontendSearchCriteria mfeCriteria = new MicrofrontendSearchCriteria();
+        mfeCriteria.productName("p3");
+        mockServerClient
+                .when(request().withPath("/internal/microfrontends/search")
+                        .withMethod(HttpMethod.POST)
+                        .withBody(JsonBody.json(mfeCriteria)))
+                .withId("mock1")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new MicrofrontendPageResult()
+                                .stream(List.of(new MicrofrontendPageItem().productName("p3").appName("mfe1"))))));
+
+        SlotSearchCriteria slotCriteria = new SlotSearchCriteria();
+        slotCriteria.productName("p3");
+        mockServerClient
+                .when(request().withPath("/internal/slots/search")
+                        .withMethod(HttpMethod.POST)
+                        .withBody(JsonBody.json(slotCriteria)))
+                .withId("mock2")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new SlotPageResult()
+                                .stream(List.of(new SlotPageItem().productName("p3"))))));
+
+        MicroserviceSearchCriteria msCriteria = new MicroserviceSearchCriteria();
+        msCriteria.productName("p3");
+        mockServerClient
+                .when(request().withPath("/internal/microservices/search")
+                        .withMethod(HttpMethod.POST)
+                        .withBody(JsonBody.json(msCriteria)))
+                .withId("mock3")
+                .respond(httpRequest -> response()
+                        .withStatusCode(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()));
+
+        var response = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .contentType(APPLICATION_JSON)
+                .body(new ProductDetailsCriteriaDTO().name("p3"))
+                .post("/details")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .contentType(APPLICATION_JSON)
+                .extract().as(ProductDetailsDTO.class);
+
+        Assertions.assertEquals(1, response.getMicrofrontends().size());
+        Assertions.assertEquals(1, response.getSlots().size());
+        Assertions.assertTrue(response.getMicroservices() == null || response.getMicroservices().isEmpty());
+        Assertions.assertEquals(1, response.getProblems().size());
+        Assertions.assertEquals("MICROSERVICES_SEARCH_FAILED", response.getProblems().get(0).getErrorCode());
+
+        mockServerClient.clear("mock1");
+        mockServerClient.clear("mock2");
+        mockServerClient.clear("mock3");
+    }
+
+    public static class PartialFailureProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.product-store.details.failure-mode", "PARTIAL");
+        }
+    }
+}
@@ -16,6 +16,7 @@ import org.junit.jupiter.api.Test;
 import org.mockserver.client.MockServerClient;
 import org.mockserver.model.JsonBody;
 import org.mockserver.model.MediaType;
+import org.mockserver.verify.VerificationTimes;
 import org.tkit.onecx.product.store.bff.rs.controllers.ProductsRestController;
 import org.tkit.quarkus.rs.mappers.OffsetDateTimeMapper;
 
@@ -188,6 +189,70 @@ class ProductsRestControllerTest extends AbstractTest {
         Assertions.assertEquals(data2.getId(), response2.getId());
     }
 
+    @Test
+    void getProductsByNames_shouldReturnProductsAndNotFoundMarkers() {
+
+        OffsetDateTime offsetDateTime = OffsetDateTime.parse("2023-11-30T13:53:03.688710200+01:00");
+        Product data = createProduct("7a0ee705-8fd0-47b0-8205-b2a5f6540b9e", "0", offsetDateTime, null, offsetDateTime,
+                null, "batch-product", "Here is some description", false,
+                "https://my-page.site.url",
+                "/batch", 0, "Batch Product", "Sun", "Themes, Menu");
+        mockServerClient
+                .when(request().withPath(PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH + "/name/" + data.getName())
+                        .withMethod(HttpMethod.GET))
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(data)));
+        mockServerClient
+                .when(request().withPath(PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH + "/name/batch-not-existing")
+                        .withMethod(HttpMethod.GET))
+                .respond(httpRequest -> response().withStatusCode(Response.Status.NOT_FOUND.getStatusCode()));
+
+        var response = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .contentType(APPLICATION_JSON)
+                .body(new ProductNamesRequestDTO().names(List.of(data.getName(), "batch-not-existing")))
+                .post("/name/batch")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .contentType(APPLICATION_JSON)
+                .extract().as(ProductNamesResultDTO.class);
+
+        Assertions.assertNotNull(response);
+        Assertions.assertEquals(List.of(data.getName(), "batch-not-existing"),
+                new ArrayList<>(response.getProducts().keySet()));
+        Assertions.assertTrue(response.getProducts().get(data.getName()).getFound());
+        Assertions.assertEquals(data.getId(), response.getProducts().get(data.getName()).getProduct().getId());
+        Assertions.assertFalse(response.getProducts().get("batch-not-existing").getFound());
+        Assertions.assertNull(response.getProducts().get("batch-not-existing").getProduct());
+    }
+
+    @Test
+    void getProductsByNames_shouldReturnBadRequest_whenTooManyNames() {
+
+        var names = new ArrayList<String>();
+        for (int i = 0; i <= 50; i++) {
+            names.add("product-" + i);
+        }
+
+        var response = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .contentType(APPLICATION_JSON)
+                .body(new ProductNamesRequestDTO().names(names))
+                .post("/name/batch")
+                .then()
+                .statusCode(Response.Status.BAD_REQUEST.getStatusCode())
+                .contentType(APPLICATION_JSON)
+                .extract().as(ProblemDetailResponseDTO.class);
+
+        Assertions.assertNotNull(response);
+        Assertions.assertEquals("BATCH_TOO_LARGE", response.getErrorCode());
+    }
+
     /**
      * Scenario: Receive 404 Not Found when product with id is not existing in backend service.
      * Given
@@ -1058,6 +1123,55 @@ class ProductsRestControllerTest extends AbstractTest {
         mockServerClient.clear("mock3");
     }
 
+    @Test
+    void getProductDetailsByName_shouldFail_whenOneSearchFails() {
+        MicrofrontendSearchCriteria mfeCriteria = new MicrofrontendSearchCriteria();
+        mfeCriteria.productName("p2");
+        mockServerClient
+                .when(request().withPath("/internal/microfrontends/search")
+                        .withMethod(HttpMethod.POST)
+                        .withBody(JsonBody.json(mfeCriteria)))
+                .withId("mock1")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new MicrofrontendPageResult().stream(List.of()))));
+
+        SlotSearchCriteria slotCriteria = new SlotSearchCriteria();
+        slotCriteria.productName("p2");
+        mockServerClient
+                .when(request().withPath("/internal/slots/search")
+                        .withMethod(HttpMethod.POST)
+                        .withBody(JsonBody.json(slotCriteria)))
+                .withId("mock2")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new SlotPageResult().stream(List.of()))));
+
+        MicroserviceSearchCriteria msCriteria = new MicroserviceSearchCriteria();
+        msCriteria.productName("p2");
+        mockServerClient
+                .when(request().withPath("/internal/microservices/search")
+                        .withMethod(HttpMethod.POST)
+                        .withBody(JsonBody.json(msCriteria)))
+                .withId("mock3")
+                .respond(httpRequest -> response()
+                        .withStatusCode(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()));
+
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .contentType(APPLICATION_JSON)
+                .body(new ProductDetailsCriteriaDTO().name("p2"))
+                .post("/details")
+                .then()
+                .statusCode(Response.Status.BAD_REQUEST.getStatusCode());
+
+        mockServerClient.clear("mock1");
+        mockServerClient.clear("mock2");
+        mockServerClient.clear("mock3");
+    }
+
     @Test
     void getProductSearchCriteriasTest() {
         mockServerClient
@@ -1083,6 +1197,61 @@ class ProductsRestControllerTest extends AbstractTest {
         mockServerClient.clear("mock1");
     }
 
+    @Test
+    void getProductSearchCriteria_shouldBeCachedUntilProductChanges() {
+        var criteriaRequest = request().withPath("/internal/products/criteria").withMethod(HttpMethod.GET);
+        mockServerClient.clear(criteriaRequest);
+        mockServerClient
+                .when(request().withPath(PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH + "/cached-criteria")
+                        .withMethod(HttpMethod.DELETE))
+                .withId("mock2")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.NO_CONTENT.getStatusCode()));
+        mockServerClient
+                .when(criteriaRequest)
+                .withId("mock1")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new ProductCriteria().classifications(List.of("class1", "class2"))
+                                .providers(List.of("provider1")))));
+
+        deleteCachedCriteriaProduct();
+        getProductSearchCriteria();
+        getProductSearchCriteria();
+        mockServerClient.verify(criteriaRequest, VerificationTimes.once());
+
+        deleteCachedCriteriaProduct();
+        getProductSearchCriteria();
+        mockServerClient.verify(criteriaRequest, VerificationTimes.exactly(2));
+
+        mockServerClient.clear("mock1");
+        mockServerClient.clear("mock2");
+    }
+
+    private void deleteCachedCriteriaProduct() {
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .delete("/cached-criteria")
+                .then()
+                .statusCode(Response.Status.NO_CONTENT.getStatusCode());
+    }
+
+    private void getProductSearchCriteria() {
+        var response = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .get("/criteria")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .contentType(APPLICATION_JSON)
+                .extract().as(ProductCriteriaDTO.class);
+        Assertions.assertEquals(2, response.getClassifications().size());
+    }
+
     @Test
     void loadProductsByCriteriaTest() {
         ProductLoadSearchCriteria criteria = new ProductLoadSearchCriteria();
@@ -1115,6 +1284,51 @@ class ProductsRestControllerTest extends AbstractTest {
         mockServerClient.clear("mock1");
     }
 
+    @Test
+    void streamProductsByCriteria_shouldStreamAllPages() {
+        for (int page = 0; page < 2; page++) {
+            ProductLoadSearchCriteria criteria = new ProductLoadSearchCriteria();
+            criteria.setProductNames(List.of("stream"));
+            criteria.setPageNumber(page);
+
+            ProductsLoadResult result = new ProductsLoadResult();
+            result.setNumber(page);
+            result.setTotalPages(2L);
+            result.setTotalElements(3L);
+            result.setStream(page == 0
+                    ? List.of(new LoadProduct().name("stream1"), new LoadProduct().name("stream2"))
+                    : List.of(new LoadProduct().name("stream3")));
+            mockServerClient
+                    .when(request().withPath("/internal/products/load")
+                            .withMethod(HttpMethod.POST).withBody(JsonBody.json(criteria)))
+                    .withId("stream" + page)
+                    .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                            .withContentType(MediaType.APPLICATION_JSON)
+                            .withBody(JsonBody.json(result)));
+        }
+
+        ProductLoadSearchCriteriaDTO criteriaDTO = new ProductLoadSearchCriteriaDTO();
+        criteriaDTO.setProductNames(List.of("stream"));
+        var lines = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .contentType(APPLICATION_JSON)
+                .body(criteriaDTO)
+                .post("/load/stream")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .contentType("application/x-ndjson")
+                .extract().asString().lines().toList();
+
+        Assertions.assertEquals(3, lines.size());
+        Assertions.assertTrue(lines.get(0).contains("\"stream1\""));
+        Assertions.assertTrue(lines.get(1).contains("\"stream2\""));
+        Assertions.assertTrue(lines.get(2).contains("\"stream3\""));
+        mockServerClient.clear("stream0");
+        mockServerClient.clear("stream1");
+    }
+
     /**
      * Helper method to create products
      *
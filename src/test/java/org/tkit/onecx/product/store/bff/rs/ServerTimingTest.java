@@ -0,0 +1,199 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.Delay;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+import org.mockserver.verify.VerificationTimes;
+import org.tkit.onecx.product.store.bff.rs.controllers.ProductsRestController;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProductDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProductDetailsCriteriaDTO;
+import gen.org.tkit.onecx.product.store.client.model.*;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.common.http.TestHTTPEndpoint;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+import io.restassured.response.ExtractableResponse;
+
+@QuarkusTest
+@TestHTTPEndpoint(ProductsRestController.class)
+@TestProfile(ServerTimingTest.ServerTimingProfile.class)
+class ServerTimingTest extends AbstractTest {
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @BeforeEach
+    void mockProduct() {
+        Product data = new Product();
+        data.setId("timing-1");
+        data.setName("server-timing");
+        data.setBasePath("/timing");
+        mockServerClient
+                .when(request().withPath("/internal/products/name/server-timing").withMethod(HttpMethod.GET))
+                .withId("mock1")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(data)));
+    }
+
+    @AfterEach
+    void clearProduct() {
+        for (var id : List.of("mock1", "mock_coalesced", "mock_details_mfe", "mock_details_ms", "mock_details_slots")) {
+            try {
+                mockServerClient.clear(id);
+            } catch (Exception _) {
+                //  mockId not existing
+            }
+        }
+    }
+
+    @Test
+    void getProductByName_shouldReturnServerTiming_whenRequested() {
+        var response = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header("X-Server-Timing", "true")
+                .contentType(APPLICATION_JSON)
+                .get("/name/server-timing")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .contentType(APPLICATION_JSON)
+                .extract();
+
+        Assertions.assertEquals("timing-1", response.as(ProductDTO.class).getId());
+        var serverTiming = response.header("Server-Timing");
+        Assertions.assertNotNull(serverTiming);
+        Assertions.assertTrue(serverTiming.contains("svc-getProductByName;dur="));
+        Assertions.assertTrue(serverTiming.contains("bff;dur="));
+        Assertions.assertTrue(serverTiming.contains("serialize;dur="));
+        Assertions.assertTrue(serverTiming.contains("total;dur="));
+    }
+
+    @Test
+    void getProductByName_shouldNotReturnServerTiming_whenNotRequested() {
+        var serverTiming = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .contentType(APPLICATION_JSON)
+                .get("/name/server-timing")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract().header("Server-Timing");
+
+        Assertions.assertNull(serverTiming);
+    }
+
+    @Test
+    void getProductByName_shouldReturnDownstreamTimings_whenCoalesced() throws Exception {
+        var data = new Product().id("timing-2").name("server-timing-coalesced").basePath("/timing");
+        mockServerClient
+                .when(request().withPath("/internal/products/name/server-timing-coalesced").withMethod(HttpMethod.GET))
+                .withId("mock_coalesced")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(data))
+                        .withDelay(Delay.delay(TimeUnit.MILLISECONDS, 1000)));
+
+        var token = keycloakClient.getAccessToken(ADMIN);
+        Callable<ExtractableResponse<?>> call = () -> given()
+                .when()
+                .auth().oauth2(token)
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .header("X-Server-Timing", "true")
+                .contentType(APPLICATION_JSON)
+                .get("/name/server-timing-coalesced")
+                .then()
+                .extract();
+        var responses = new ArrayList<ExtractableResponse<?>>();
+        try (var executor = Executors.newFixedThreadPool(2)) {
+            for (var result : executor.invokeAll(List.of(call, call))) {
+                responses.add(result.get());
+            }
+        }
+
+        mockServerClient.verify(request().withPath("/internal/products/name/server-timing-coalesced"),
+                VerificationTimes.once());
+        for (var response : responses) {
+            Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.statusCode());
+            var serverTiming = response.header("Server-Timing");
+            Assertions.assertNotNull(serverTiming);
+            Assertions.assertTrue(serverTiming.contains("svc-getProductByName;dur="), serverTiming);
+        }
+    }
+
+    @Test
+    void getProductDetails_shouldReturnTimingsOfAllSections() {
+        mockServerClient
+                .when(request().withPath("/internal/microfrontends/search").withMethod(HttpMethod.POST))
+                .withId("mock_details_mfe")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new MicrofrontendPageResult().stream(List.of()))));
+        mockServerClient
+                .when(request().withPath("/internal/microservices/search").withMethod(HttpMethod.POST))
+                .withId("mock_details_ms")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new MicroservicePageResult().stream(List.of()))));
+        mockServerClient
+                .when(request().withPath("/internal/slots/search").withMethod(HttpMethod.POST))
+                .withId("mock_details_slots")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new SlotPageResult().stream(List.of()))));
+
+        var serverTiming = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header("X-Server-Timing", "true")
+                .contentType(APPLICATION_JSON)
+                .body(new ProductDetailsCriteriaDTO().name("server-timing"))
+                .post("/details")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract().header("Server-Timing");
+
+        Assertions.assertNotNull(serverTiming);
+        Assertions.assertTrue(serverTiming.contains("svc-searchMicrofrontends;dur="), serverTiming);
+        Assertions.assertTrue(serverTiming.contains("svc-searchMicroservice;dur="), serverTiming);
+        Assertions.assertTrue(serverTiming.contains("svc-searchSlots;dur="), serverTiming);
+        Assertions.assertTrue(serverTiming.contains("bff;dur="), serverTiming);
+    }
+
+    public static class ServerTimingProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.product-store.server-timing.enabled", "true");
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.Delay;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+import org.mockserver.verify.VerificationTimes;
+import org.tkit.onecx.product.store.bff.rs.controllers.ProductsRestController;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProductDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProductDetailsCriteriaDTO;
+import gen.org.tkit.onecx.product.store.client.model.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.common.http.TestHTTPEndpoint;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+import io.restassured.response.ExtractableResponse;
+
+@QuarkusTest
+@TestHTTPEndpoint(ProductsRestController.class)
+@TestProfile(SingleFlightTest.SingleFlightProfile.class)
+class SingleFlightTest extends AbstractTest {
+
+    static final int REQUESTS = 5;
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @Inject
+    MeterRegistry registry;
+
+    @AfterEach
+    void clearMocks() {
+        for (var id : List.of("mock_single_flight", "mock_single_flight_mfe", "mock_single_flight_ms",
+                "mock_single_flight_slots")) {
+            try {
+                mockServerClient.clear(id);
+            } catch (Exception _) {
+                //  mockId not existing
+            }
+        }
+    }
+
+    @Test
+    void getProductByName_shouldCoalesceConcurrentRequests() throws Exception {
+        var data = new Product().id("single-flight").name("single-flight").basePath("/single-flight");
+        mockServerClient
+                .when(request().withPath("/internal/products/name/single-flight").withMethod(HttpMethod.GET))
+                .withId("mock_single_flight")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(data))
+                        .withDelay(Delay.delay(TimeUnit.MILLISECONDS, 1000)));
+
+        var token = keycloakClient.getAccessToken(ADMIN);
+        var responses = concurrently(() -> given()
+                .when()
+                .auth().oauth2(token)
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .contentType(APPLICATION_JSON)
+                .get("/name/single-flight")
+                .then()
+                .extract());
+
+        for (var response : responses) {
+            Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.statusCode());
+            Assertions.assertEquals("single-flight", response.as(ProductDTO.class).getId());
+        }
+        mockServerClient.verify(request().withPath("/internal/products/name/single-flight"), VerificationTimes.once());
+        var coalesced = registry.find("onecx.product-store.single-flight.coalesced")
+                .tag("operation", "getProductByName").counter();
+        Assertions.assertNotNull(coalesced);
+        Assertions.assertEquals(REQUESTS - 1, coalesced.count());
+    }
+
+    @Test
+    void getProductDetails_shouldNotCoalesce_whenOperationDisabled() throws Exception {
+        mockServerClient
+                .when(request().withPath("/internal/microfrontends/search").withMethod(HttpMethod.POST))
+                .withId("mock_single_flight_mfe")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new MicrofrontendPageResult().stream(List.of())))
+                        .withDelay(Delay.delay(TimeUnit.MILLISECONDS, 500)));
+        mockServerClient
+                .when(request().withPath("/internal/microservices/search").withMethod(HttpMethod.POST))
+                .withId("mock_single_flight_ms")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new MicroservicePageResult().stream(List.of()))));
+        mockServerClient
+                .when(request().withPath("/internal/slots/search").withMethod(HttpMethod.POST))
+                .withId("mock_single_flight_slots")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new SlotPageResult().stream(List.of()))));
+
+        var token = keycloakClient.getAccessToken(ADMIN);
+        var responses = concurrently(() -> given()
+                .when()
+                .auth().oauth2(token)
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .contentType(APPLICATION_JSON)
+                .body(new ProductDetailsCriteriaDTO().name("single-flight-details"))
+                .post("/details")
+                .then()
+                .extract());
+
+        for (var response : responses) {
+            Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.statusCode());
+        }
+        mockServerClient.verify(request().withPath("/internal/microfrontends/search"),
+                VerificationTimes.exactly(REQUESTS));
+    }
+
+    private List<ExtractableResponse<?>> concurrently(Callable<ExtractableResponse<?>> call) throws Exception {
+        var calls = new ArrayList<Callable<ExtractableResponse<?>>>();
+        for (int i = 0; i < REQUESTS; i++) {
+            calls.add(call);
+        }
+        var responses = new ArrayList<ExtractableResponse<?>>();
+        try (var executor = Executors.newFixedThreadPool(REQUESTS)) {
+            for (var result : executor.invokeAll(calls)) {
+                responses.add(result.get());
+            }
+        }
+        return responses;
+    }
+
+    public static class SingleFlightProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.product-store.single-flight.operations.getProductDetailsByCriteria", "false");
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.util.List;
+import java.util.Map;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+import org.mockserver.verify.VerificationTimes;
+import org.tkit.onecx.product.store.bff.rs.controllers.SlotsRestController;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.CreateSlotRequestDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.SlotPageResultDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.SlotSearchCriteriaDTO;
+import gen.org.tkit.onecx.product.store.client.model.Slot;
+import gen.org.tkit.onecx.product.store.client.model.SlotPageItem;
+import gen.org.tkit.onecx.product.store.client.model.SlotPageResult;
+import gen.org.tkit.onecx.product.store.client.model.SlotSearchCriteria;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.common.http.TestHTTPEndpoint;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+
+@QuarkusTest
+@TestHTTPEndpoint(SlotsRestController.class)
+@TestProfile(SlotCacheTest.SlotCacheProfile.class)
+class SlotCacheTest extends AbstractTest {
+
+    private static final String PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH = "/internal/slots";
+
+    static final String MOCK_ID = "MOCK";
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @BeforeEach
+    void resetExpectation() {
+        try {
+            mockServerClient.clear(MOCK_ID);
+        } catch (Exception _) {
+            //  mockId not existing
+        }
+    }
+
+    @Test
+    void searchSlots_shouldBeLoadedOnlyOnce() {
+        var productName = "cachedSlots";
+        mockSearch(productName);
+
+        for (int i = 0; i < 3; i++) {
+            var result = searchSlots(productName);
+            Assertions.assertEquals(1, result.getStream().size());
+        }
+
+        verifySearch(productName, VerificationTimes.once());
+    }
+
+    @Test
+    void createSlot_shouldInvalidateOnlyAffectedProduct() {
+        var changed = "cachedSlotsCreate";
+        var unchanged = "cachedSlotsOther";
+        mockSearch(changed);
+        mockSearch(unchanged);
+        mockServerClient.when(request().withPath(PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH).withMethod(HttpMethod.POST))
+                .withId("MOCK_CREATE")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.CREATED.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new Slot().appId("app1").name("slot2").productName(changed))));
+
+        searchSlots(changed);
+        searchSlots(unchanged);
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .contentType(APPLICATION_JSON)
+                .body(new CreateSlotRequestDTO().appId("app1").name("slot2").productName(changed))
+                .post()
+                .then()
+                .statusCode(Response.Status.CREATED.getStatusCode());
+        searchSlots(changed);
+        searchSlots(unchanged);
+
+        verifySearch(changed, VerificationTimes.exactly(2));
+        verifySearch(unchanged, VerificationTimes.once());
+        mockServerClient.clear("MOCK_CREATE");
+    }
+
+    @Test
+    void createSlot_shouldNotInvalidateOtherTenants() {
+        var productName = "cachedSlotsTenant";
+        mockSearch(productName);
+        mockServerClient.when(request().withPath(PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH).withMethod(HttpMethod.POST))
+                .withId("MOCK_CREATE")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.CREATED.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new Slot().appId("app1").name("slot2").productName(productName))));
+
+        searchSlots(productName);
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, "tenant-2")
+                .contentType(APPLICATION_JSON)
+                .body(new CreateSlotRequestDTO().appId("app1").name("slot2").productName(productName))
+                .post()
+                .then()
+                .statusCode(Response.Status.CREATED.getStatusCode());
+        searchSlots(productName);
+
+        verifySearch(productName, VerificationTimes.once());
+        mockServerClient.clear("MOCK_CREATE");
+    }
+
+    @Test
+    void deleteSlot_shouldInvalidateProductOfStoredSlot() {
+        var productName = "cachedSlotsDelete";
+        var id = "cachedSlotId";
+        mockSearch(productName);
+        mockServerClient.when(request().withPath(PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH + "/" + id)
+                .withMethod(HttpMethod.GET))
+                .withId("MOCK_GET")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new Slot().id(id).appId("app1").name("slot1").productName(productName))));
+        mockServerClient.when(request().withPath(PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH + "/" + id)
+                .withMethod(HttpMethod.DELETE))
+                .withId("MOCK_DELETE")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.NO_CONTENT.getStatusCode()));
+
+        searchSlots(productName);
+        given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .delete(id)
+                .then()
+                .statusCode(Response.Status.NO_CONTENT.getStatusCode());
+        searchSlots(productName);
+
+        verifySearch(productName, VerificationTimes.exactly(2));
+        mockServerClient.clear("MOCK_GET");
+        mockServerClient.clear("MOCK_DELETE");
+    }
+
+    private void mockSearch(String productName) {
+        var data = new SlotPageResult().number(0).size(1).totalElements(1L).totalPages(1L)
+                .stream(List.of(new SlotPageItem().appId("app1").name("slot1").productName(productName)));
+        mockServerClient
+                .when(request().withPath(PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH + "/search").withMethod(HttpMethod.POST)
+                        .withBody(JsonBody.json(new SlotSearchCriteria().productName(productName))))
+                .withId(MOCK_ID + "_" + productName)
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(data)));
+    }
+
+    private void verifySearch(String productName, VerificationTimes times) {
+        mockServerClient.verify(request()
+                .withPath(PRODUCT_STORE_SVC_INTERNAL_API_BASE_PATH + "/search")
+                .withMethod(HttpMethod.POST)
+                .withBody(JsonBody.json(new SlotSearchCriteria().productName(productName))), times);
+        mockServerClient.clear(MOCK_ID + "_" + productName);
+    }
+
+    private SlotPageResultDTO searchSlots(String productName) {
+        return given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .contentType(APPLICATION_JSON)
+                .body(new SlotSearchCriteriaDTO().productName(productName))
+                .post("/search")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract().as(SlotPageResultDTO.class);
+    }
+
+    public static class SlotCacheProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.product-store.slots.cache.enabled", "true");
+        }
+    }
+}
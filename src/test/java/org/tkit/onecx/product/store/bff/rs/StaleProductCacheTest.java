@@ -0,0 +1,114 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+import org.mockserver.verify.VerificationTimes;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProductDTO;
+import gen.org.tkit.onecx.product.store.client.model.Product;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+import io.restassured.response.ExtractableResponse;
+
+/**
+ * Stale responses together with the product cache, the product cache entries expire after
+ * {@value #PRODUCT_CACHE_MILLIS} ms.
+ */
+@QuarkusTest
+@TestProfile(StaleProductCacheTest.StaleProductCacheProfile.class)
+class StaleProductCacheTest extends AbstractTest {
+
+    static final String WARNING = "Warning";
+
+    static final long PRODUCT_CACHE_MILLIS = 2000;
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @AfterEach
+    void clearMocks() {
+        try {
+            mockServerClient.clear("mock_product");
+        } catch (Exception _) {
+            //  mockId not existing
+        }
+    }
+
+    @Test
+    void getProduct_shouldNotCacheStaleResponses() throws Exception {
+        var id = "staleCachedProduct";
+        var loads = new AtomicInteger();
+        mockServerClient
+                .when(request().withPath("/internal/products/" + id).withMethod(HttpMethod.GET))
+                .withId("mock_product")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new Product().id(id)
+                                .name(loads.getAndIncrement() == 0 ? "stale" : "revalidated").basePath("/stale"))));
+
+        Assertions.assertEquals("stale", getProduct(id).as(ProductDTO.class).getName());
+
+        // the product cache entry expires, the stale response is served while it is reloaded
+        Thread.sleep(PRODUCT_CACHE_MILLIS + 100);
+        var stale = getProduct(id);
+        Assertions.assertEquals("110 - \"Response is Stale\"", stale.header(WARNING));
+        Assertions.assertEquals("stale", stale.as(ProductDTO.class).getName());
+
+        // a stale response in the product cache would be served until the product cache entry expires
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PRODUCT_CACHE_MILLIS * 3 / 4);
+        var name = getProduct(id).as(ProductDTO.class).getName();
+        while (!"revalidated".equals(name) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            name = getProduct(id).as(ProductDTO.class).getName();
+        }
+        Assertions.assertEquals("revalidated", name);
+        mockServerClient.verify(request().withPath("/internal/products/" + id), VerificationTimes.exactly(2));
+    }
+
+    private ExtractableResponse<?> getProduct(String id) {
+        return given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .contentType(APPLICATION_JSON)
+                .get("/products/" + id)
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract();
+    }
+
+    public static class StaleProductCacheProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.product-store.stale.enabled", "true",
+                    "onecx.product-store.stale.fresh", "0S",
+                    "onecx.product-store.stale.stale-while-revalidate", "10S",
+                    "onecx.product-store.stale.stale-if-error", "5M",
+                    "onecx.product-store.products.cache.enabled", "true",
+                    "onecx.product-store.products.cache.expire-after-write", PRODUCT_CACHE_MILLIS + "ms");
+        }
+    }
+}
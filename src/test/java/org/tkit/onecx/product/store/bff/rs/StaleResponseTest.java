@@ -0,0 +1,156 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+import org.mockserver.verify.VerificationTimes;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.MicrofrontendDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProductDTO;
+import gen.org.tkit.onecx.product.store.client.model.Microfrontend;
+import gen.org.tkit.onecx.product.store.client.model.ProblemDetailResponse;
+import gen.org.tkit.onecx.product.store.client.model.Product;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.ValidatableResponse;
+
+@QuarkusTest
+@TestProfile(StaleResponseTest.StaleResponseProfile.class)
+class StaleResponseTest extends AbstractTest {
+
+    static final String WARNING = "Warning";
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @Test
+    void getProduct_shouldServeStaleWhileRevalidating() throws Exception {
+        var id = "staleProduct";
+        var loads = new AtomicInteger();
+        mockServerClient
+                .when(request().withPath("/internal/products/" + id).withMethod(HttpMethod.GET))
+                .withId("mock_product")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(new Product().id(id)
+                                .name(loads.getAndIncrement() == 0 ? "stale" : "revalidated").basePath("/stale"))));
+
+        var fresh = getProduct(id);
+        Assertions.assertNull(fresh.header(WARNING));
+
+        var stale = getProduct(id);
+        Assertions.assertEquals("110 - \"Response is Stale\"", stale.header(WARNING));
+        Assertions.assertEquals("stale", stale.as(ProductDTO.class).getName());
+
+        // the stale response is reloaded in the background with the principal token of the request
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (mockServerClient.retrieveRecordedRequests(request().withPath("/internal/products/" + id)).length < 2
+                && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        mockServerClient.verify(request().withPath("/internal/products/" + id)
+                .withHeader(APM_HEADER_PARAM, ADMIN), VerificationTimes.exactly(2));
+
+        // the reloaded response is stored for the tenant of the request
+        var name = getProduct(id).as(ProductDTO.class).getName();
+        while (!"revalidated".equals(name) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            name = getProduct(id).as(ProductDTO.class).getName();
+        }
+        Assertions.assertEquals("revalidated", name);
+        mockServerClient.clear("mock_product");
+    }
+
+    @Test
+    void getMicrofrontend_shouldServeStaleOnError() throws Exception {
+        var id = "staleMfe";
+        var mfe = new Microfrontend();
+        mfe.setId(id);
+        mfe.setAppId("stale-app");
+        mockServerClient
+                .when(request().withPath("/internal/microfrontends/" + id).withMethod(HttpMethod.GET))
+                .withId("mock_mfe")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(mfe)));
+
+        getMicrofrontend(id).statusCode(Response.Status.OK.getStatusCode());
+        mockServerClient.clear("mock_mfe");
+
+        // wait until the stale-while-revalidate window is over
+        Thread.sleep(2100);
+
+        var problem = new ProblemDetailResponse();
+        problem.setErrorCode("INTERNAL");
+        mockServerClient
+                .when(request().withPath("/internal/microfrontends/" + id).withMethod(HttpMethod.GET))
+                .withId("mock_mfe_error")
+                .respond(httpRequest -> response()
+                        .withStatusCode(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(problem)));
+
+        var stale = getMicrofrontend(id)
+                .statusCode(Response.Status.OK.getStatusCode())
+                .header(WARNING, "111 - \"Revalidation Failed\"")
+                .extract().as(MicrofrontendDTO.class);
+        Assertions.assertEquals("stale-app", stale.getAppId());
+
+        mockServerClient.clear("mock_mfe_error");
+    }
+
+    private ExtractableResponse<?> getProduct(String id) {
+        return given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .contentType(APPLICATION_JSON)
+                .get("/products/" + id)
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract();
+    }
+
+    private ValidatableResponse getMicrofrontend(String id) {
+        return given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(TENANT_HEADER, TENANT)
+                .contentType(APPLICATION_JSON)
+                .get("/microfrontends/" + id)
+                .then();
+    }
+
+    public static class StaleResponseProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.product-store.stale.enabled", "true",
+                    "onecx.product-store.stale.fresh", "0S",
+                    "onecx.product-store.stale.stale-while-revalidate", "2S",
+                    "onecx.product-store.stale.stale-if-error", "5M");
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.MediaType;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.MfeAndMsSearchCriteriaDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.MicroservicePageResultDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProductPageResultDTO;
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProductSearchCriteriaDTO;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+
+@QuarkusTest
+@TestProfile(TranscodingTest.TranscodingProfile.class)
+class TranscodingTest extends AbstractTest {
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @Test
+    void searchMicroservices_shouldRenameProperties() {
+        mockServerClient
+                .when(request().withPath("/internal/microservices/search").withMethod(HttpMethod.POST))
+                .withId("mock1")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody("""
+                                {"number":0,"size":10,"totalElements":1,"totalPages":1,"stream":[
+                                {"id":"ms-1","appId":"app-1","name":"App One","version":"1.0.0",
+                                "productName":"productA","unknownField":{"nested":[1,2]}}]}
+                                """));
+
+        var response = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .contentType(APPLICATION_JSON)
+                .body(new MfeAndMsSearchCriteriaDTO().productName("productA"))
+                .post("/microservices/search")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .contentType(APPLICATION_JSON)
+                .extract().as(MicroservicePageResultDTO.class);
+
+        Assertions.assertEquals(1L, response.getTotalElements());
+        Assertions.assertEquals(1, response.getStream().size());
+        var ms = response.getStream().get(0);
+        Assertions.assertEquals("ms-1", ms.getId());
+        Assertions.assertEquals("app-1", ms.getAppId());
+        Assertions.assertEquals("App One", ms.getAppName());
+        Assertions.assertEquals("1.0.0", ms.getAppVersion());
+        Assertions.assertEquals("productA", ms.getProductName());
+
+        mockServerClient.clear("mock1");
+    }
+
+    @Test
+    void searchProducts_shouldSplitClassifications() {
+        mockServerClient
+                .when(request().withPath("/internal/products/search").withMethod(HttpMethod.POST))
+                .withId("mock1")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody("""
+                                {"number":0,"size":10,"totalElements":2,"totalPages":1,"stream":[
+                                {"id":"p-1","name":"product1","classifications":"Themes,Menu,Themes"},
+                                {"id":"p-2","name":"product2","classifications":["Search"]}]}
+                                """));
+
+        var response = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .contentType(APPLICATION_JSON)
+                .body(new ProductSearchCriteriaDTO().names(List.of("product1", "product2")))
+                .post("/products/search")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .contentType(APPLICATION_JSON)
+                .extract().as(ProductPageResultDTO.class);
+
+        Assertions.assertEquals(2, response.getStream().size());
+        Assertions.assertEquals("product1", response.getStream().get(0).getName());
+        Assertions.assertEquals(Set.of("Themes", "Menu"), Set.copyOf(response.getStream().get(0).getClassifications()));
+        Assertions.assertEquals(Set.of("Search"), Set.copyOf(response.getStream().get(1).getClassifications()));
+
+        mockServerClient.clear("mock1");
+    }
+
+    @Test
+    void searchProducts_shouldWriteEmptyClassifications_whenNullOrMissing() {
+        mockServerClient
+                .when(request().withPath("/internal/products/search").withMethod(HttpMethod.POST))
+                .withId("mock1")
+                .respond(response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody("""
+                                {"number":0,"size":10,"totalElements":2,"totalPages":1,"stream":[
+                                {"id":"p-1","name":"product1","classifications":null},
+                                {"id":"p-2","name":"product2"}]}
+                                """));
+
+        var response = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .contentType(APPLICATION_JSON)
+                .body(new ProductSearchCriteriaDTO().names(List.of("product1", "product2")))
+                .post("/products/search")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .contentType(APPLICATION_JSON)
+                .body("stream[0].classifications", hasSize(0))
+                .body("stream[1].classifications", hasSize(0))
+                .extract().as(ProductPageResultDTO.class);
+
+        Assertions.assertEquals(2, response.getStream().size());
+
+        mockServerClient.clear("mock1");
+    }
+
+    public static class TranscodingProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.product-store.transcoding.enabled", "true");
+        }
+    }
+}
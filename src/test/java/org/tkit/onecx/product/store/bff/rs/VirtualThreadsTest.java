@@ -0,0 +1,106 @@
+package org.tkit.onecx.product.store.bff.rs;
+
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Response;
+
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.model.JsonBody;
+import org.mockserver.model.MediaType;
+import org.tkit.onecx.product.store.bff.rs.controllers.ProductsRestController;
+
+import gen.org.tkit.onecx.product.store.bff.rs.internal.model.ProductDTO;
+import gen.org.tkit.onecx.product.store.client.model.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkiverse.mockserver.test.InjectMockServerClient;
+import io.quarkus.test.common.http.TestHTTPEndpoint;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.keycloak.client.KeycloakTestClient;
+
+@QuarkusTest
+@TestHTTPEndpoint(ProductsRestController.class)
+@TestProfile(VirtualThreadsTest.VirtualThreadsProfile.class)
+class VirtualThreadsTest extends AbstractTest {
+
+    static final String HANDLER_THREAD_HEADER = "x-test-handler-thread";
+
+    static final AtomicReference<Thread> HANDLER_THREAD = new AtomicReference<>();
+
+    KeycloakTestClient keycloakClient = new KeycloakTestClient();
+
+    @InjectMockServerClient
+    MockServerClient mockServerClient;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    void getProductByName_shouldRunOnVirtualThread() {
+        Product data = new Product();
+        data.setId("vt-1");
+        data.setName("virtual-threads");
+        data.setBasePath("/vt");
+        mockServerClient
+                .when(request().withPath("/internal/products/name/" + data.getName())
+                        .withMethod(HttpMethod.GET))
+                .withId("mock1")
+                .respond(httpRequest -> response().withStatusCode(Response.Status.OK.getStatusCode())
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody(JsonBody.json(data)));
+
+        var response = given()
+                .when()
+                .auth().oauth2(keycloakClient.getAccessToken(ADMIN))
+                .header(APM_HEADER_PARAM, ADMIN)
+                .header(HANDLER_THREAD_HEADER, "true")
+                .contentType(APPLICATION_JSON)
+                .get("/name/" + data.getName())
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .contentType(APPLICATION_JSON)
+                .extract().as(ProductDTO.class);
+
+        Assertions.assertEquals(data.getId(), response.getId());
+        Assertions.assertNotNull(HANDLER_THREAD.get());
+        Assertions.assertTrue(HANDLER_THREAD.get().isVirtual(), "handler thread " + HANDLER_THREAD.get());
+        Assertions.assertNotNull(registry.find("onecx.product-store.virtual-threads.pinned.events").counter());
+
+        mockServerClient.clear("mock1");
+    }
+
+    /**
+     * Records the thread of the marked requests, the request filters run on the thread of the resource method.
+     */
+    public static class HandlerThreadFilter {
+
+        @ServerRequestFilter
+        public void handlerThread(ContainerRequestContext requestContext) {
+            if (requestContext.getHeaderString(HANDLER_THREAD_HEADER) != null) {
+                HANDLER_THREAD.set(Thread.currentThread());
+            }
+        }
+    }
+
+    public static class VirtualThreadsProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("quarkus.virtual-threads.enabled", "true");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.tkit.onecx.product.store.bff.rs.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+
+/**
+ * In memory shared tier enabled by the tests of the product cache.
+ */
+@Alternative
+@ApplicationScoped
+public class InMemorySharedCacheTier implements SharedCacheTier {
+
+    private final Map<String, Map<String, byte[]>> values = new ConcurrentHashMap<>();
+
+    @Override
+    public byte[] get(String tenant, String key) {
+        return values.getOrDefault(tenant, Map.of()).get(key);
+    }
+
+    @Override
+    public void put(String tenant, String key, byte[] value, Duration ttl) {
+        values.computeIfAbsent(tenant, _ -> new ConcurrentHashMap<>()).put(key, value);
+    }
+
+    @Override
+    public void invalidate(String tenant) {
+        values.remove(tenant);
+    }
+
+    public int size() {
+        return values.values().stream().mapToInt(Map::size).sum();
+    }
+}